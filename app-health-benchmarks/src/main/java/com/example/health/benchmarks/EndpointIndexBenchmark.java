@@ -0,0 +1,64 @@
+package com.example.health.benchmarks;
+
+import com.example.health.config.AppHealthProperties;
+import com.example.health.indicator.EndpointsHealthIndicator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The endpoints listing over synthetic handler mappings: building the descriptor index (what
+ * every health call used to do) versus a health call served from the built index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EndpointIndexBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int handlers;
+
+    private EndpointsHealthIndicator indicator;
+
+    public static class Handler {
+        public String handle() { return "ok"; }
+    }
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        RequestMappingHandlerMapping mapping = new RequestMappingHandlerMapping();
+        Method method = Handler.class.getMethod("handle");
+        Handler handler = new Handler();
+        RequestMethod[] verbs = RequestMethod.values();
+        for (int i = 0; i < handlers; i++) {
+            RequestMappingInfo info = RequestMappingInfo.paths("/api/v1/resource" + i + "/{id}")
+                    .methods(verbs[i % verbs.length])
+                    .options(mapping.getBuilderConfiguration())
+                    .build();
+            mapping.registerMapping(info, handler, method);
+        }
+        AppHealthProperties.Endpoints props = new AppHealthProperties().getEndpoints();
+        props.setMaxList(handlers);
+        indicator = new EndpointsHealthIndicator(mapping, props, (RestClient) null);
+        indicator.getIndex().rebuild();
+    }
+
+    @Benchmark
+    public void rebuildIndex() {
+        indicator.getIndex().rebuild();
+    }
+
+    @Benchmark
+    public Health health() {
+        return indicator.health();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.health.benchmarks;
+
+import com.example.health.engine.HealthEvaluator;
+import com.example.health.engine.HealthResult;
+import com.example.health.indicator.FlatSummaryHealthIndicator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.concurrent.TimeUnit;
+
+/** The flat view: evaluating the tree and flattening it ({@code health}) versus flattening an evaluated tree ({@code derive}). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlatSummaryBenchmark {
+
+    @Param({"4", "32"})
+    int externals;
+
+    private FlatSummaryHealthIndicator flat;
+    private HealthResult evaluated;
+
+    @Setup
+    public void setup() {
+        CompositeHealthContributor tree = Stubs.tree(externals);
+        HealthEvaluator evaluator = new HealthEvaluator();
+        flat = new FlatSummaryHealthIndicator(tree, evaluator);
+        evaluated = evaluator.evaluate(tree);
+    }
+
+    @Benchmark
+    public Health health() {
+        return flat.health();
+    }
+
+    @Benchmark
+    public Health derive() {
+        return flat.derive(evaluated);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.health.benchmarks;
+
+import com.example.health.engine.LatencyHistogram;
+import com.example.health.indicator.LatencyDecorators;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Latency bookkeeping: the Actuator decorator, and recording into / reading the histogram. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatencyBenchmark {
+
+    private HealthIndicator plain;
+    private HealthIndicator decorated;
+    private LatencyHistogram histogram;
+
+    @Setup
+    public void setup() {
+        plain = Stubs.external("svc");
+        decorated = LatencyDecorators.withLatency(plain);
+        histogram = new LatencyHistogram(Duration.ofMinutes(1), 6);
+        for (int i = 0; i < 10_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+    }
+
+    @Benchmark
+    public Health undecorated() {
+        return plain.health();
+    }
+
+    @Benchmark
+    public Health withLatency() {
+        return decorated.health();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void histogramRecord() {
+        histogram.record(ThreadLocalRandom.current().nextLong(100_000L, 5_000_000L));
+    }
+
+    @Benchmark
+    public LatencyHistogram.Percentiles histogramPercentiles() {
+        return histogram.percentiles();
+    }
+}
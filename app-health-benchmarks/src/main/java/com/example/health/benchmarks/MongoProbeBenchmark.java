@@ -0,0 +1,58 @@
+package com.example.health.benchmarks;
+
+import com.example.health.probe.MongoProbe;
+import com.example.health.probe.impl.ReflectiveMongoProbe;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The reflective Mongo call chain against an in-memory driver stub: the MethodHandle probe in
+ * each mode, and the per-call {@code getMethod}/{@code invoke} chain it replaced as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MongoProbeBenchmark {
+
+    private Object client;
+    private MongoProbe listCollections;
+    private MongoProbe ping;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        client = StubMongo.client();
+        listCollections = ReflectiveMongoProbe.fromMongoClient(client, "admin", ReflectiveMongoProbe.Mode.LIST_COLLECTIONS);
+        ping = ReflectiveMongoProbe.fromMongoClient(client, "admin", ReflectiveMongoProbe.Mode.PING);
+    }
+
+    @Benchmark
+    public MongoProbe.Result handlesListCollections() throws Exception {
+        return listCollections.probe();
+    }
+
+    @Benchmark
+    public MongoProbe.Result handlesPing() throws Exception {
+        return ping.probe();
+    }
+
+    /** The lookup-per-call chain used before the handles were resolved up front. */
+    @Benchmark
+    public MongoProbe.Result reflectionPerCall() throws Exception {
+        Object db = invoke(client, "getDatabase", new Class[]{String.class}, new Object[]{"admin"});
+        String name = String.valueOf(invoke(db, "getName", new Class[0], new Object[0]));
+        Object names = invoke(db, "listCollectionNames", new Class[0], new Object[0]);
+        Object first = invoke(names, "first", new Class[0], new Object[0]);
+        return new MongoProbe.Result(name, String.valueOf(first));
+    }
+
+    private static Object invoke(Object target, String method, Class<?>[] types, Object[] args) throws Exception {
+        Method m = target.getClass().getMethod(method, types);
+        m.setAccessible(true); // the stub implementations, like the driver's, are not public
+        return m.invoke(target, args);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.health.benchmarks;
+
+import com.example.health.engine.HealthEvaluator;
+import com.example.health.snapshot.HealthSnapshotEngine;
+import com.example.health.web.CustomHealthController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /app-health/custom} as the controller serves it: evaluating the stub tree and encoding
+ * a fresh body ({@code fresh}), reusing the encoded bytes of an unchanged result ({@code cached}),
+ * and answering a poll whose ETag still matches ({@code notModified}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({"4", "32"})
+    int externals;
+
+    private CustomHealthController fresh;
+    private CustomHealthController cached;
+    private String etag;
+
+    @Setup
+    public void setup() {
+        HealthContributor tree = Stubs.tree(externals);
+        ObjectMapper mapper = new ObjectMapper();
+        fresh = new CustomHealthController(Stubs.provider(tree), Stubs.provider((HealthSnapshotEngine) null),
+                Stubs.provider(new HealthEvaluator()), Stubs.provider(mapper));
+        // a long coalescing window hands every call the same result, as a snapshot would
+        HealthEvaluator sharing = new HealthEvaluator(false, c -> null, null, Duration.ofHours(1));
+        cached = new CustomHealthController(Stubs.provider(tree), Stubs.provider((HealthSnapshotEngine) null),
+                Stubs.provider(sharing), Stubs.provider(mapper));
+        etag = cached.customHealth(null, null).getHeaders().getETag();
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> freshNested() {
+        return fresh.customHealth(null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> freshFlat() {
+        return fresh.customHealth("flat", null);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> cachedNested() {
+        return cached.customHealth(null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> notModified() {
+        return cached.customHealth(null, etag);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.health.benchmarks;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.List;
+
+/**
+ * Minimal stand-in for the Mongo driver's public API: the same method names and shapes that
+ * {@code ReflectiveMongoProbe} resolves ({@code getDatabase}, {@code getName},
+ * {@code listCollectionNames().first()}, {@code runCommand}), answering from memory.
+ */
+public final class StubMongo {
+    private StubMongo() {}
+
+    public interface Client {
+        Database getDatabase(String name);
+    }
+
+    public interface Database {
+        String getName();
+        Names listCollectionNames();
+        Document runCommand(Bson command);
+    }
+
+    public interface Names extends Iterable<String> {
+        String first();
+    }
+
+    private static final Document OK = new Document("ok", 1.0);
+    private static final List<String> COLLECTIONS = List.of("orders", "pings", "users");
+
+    static Client client() {
+        return new ClientImpl();
+    }
+
+    // not public, like the driver's own implementations
+    static final class ClientImpl implements Client {
+        private final DatabaseImpl db = new DatabaseImpl("admin");
+        @Override public Database getDatabase(String name) { return name.equals(db.name) ? db : new DatabaseImpl(name); }
+    }
+
+    static final class DatabaseImpl implements Database {
+        private final String name;
+        DatabaseImpl(String name) { this.name = name; }
+        @Override public String getName() { return name; }
+        @Override public Names listCollectionNames() { return new NamesImpl(); }
+        @Override public Document runCommand(Bson command) { return OK; }
+    }
+
+    static final class NamesImpl implements Names {
+        @Override public String first() { return COLLECTIONS.get(0); }
+        @Override public java.util.Iterator<String> iterator() { return COLLECTIONS.iterator(); }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.health.benchmarks;
+
+import com.example.health.indicator.DatabaseHealthIndicator;
+import com.example.health.indicator.KafkaHealthIndicator;
+import com.example.health.indicator.MongoHealthIndicator;
+import com.example.health.probe.DatabaseProbe;
+import com.example.health.probe.KafkaProbe;
+import com.example.health.probe.MongoProbe;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** In-memory stand-ins for the dependencies: every probe answers immediately with a fixed result. */
+final class Stubs {
+    private Stubs() {}
+
+    static final DatabaseProbe DB = () -> new DatabaseProbe.Result("H2", "2.2.224", 0L, 0L, "query");
+    static final MongoProbe MONGO = () -> new MongoProbe.Result("demo", null, "ping");
+    static final KafkaProbe KAFKA = () -> new KafkaProbe.Result(3, "stub-cluster");
+
+    /** An external-service leaf with the same details a real HEAD probe reports. */
+    static HealthIndicator external(String name) {
+        return () -> Health.up()
+                .withDetail("component", "external:" + name)
+                .withDetail("type", "external")
+                .withDetail("route", "http://stub.local/" + name)
+                .withDetail("method", "HEAD")
+                .withDetail("status", 200)
+                .withDetail("methodCache", "hit")
+                .withDetail("latencyMs", 0L)
+                .build();
+    }
+
+    /** The same shape the auto-configuration builds: db, mongo, kafka and {@code externals} services. */
+    static CompositeHealthContributor tree(int externals) {
+        Map<String, HealthContributor> components = new LinkedHashMap<>();
+        components.put("db", new DatabaseHealthIndicator(DB, "h2"));
+        components.put("mongo", new MongoHealthIndicator(MONGO));
+        components.put("kafka", new KafkaHealthIndicator(KAFKA));
+        Map<String, HealthContributor> external = new LinkedHashMap<>();
+        for (int i = 0; i < externals; i++) {
+            external.put("svc" + i, external("svc" + i));
+        }
+        components.put("external", CompositeHealthContributor.fromMap(external));
+        return CompositeHealthContributor.fromMap(components);
+    }
+
+    static <T> ObjectProvider<T> provider(T value) {
+        return new ObjectProvider<>() {
+            @Override public T getObject(Object... args) throws BeansException { return value; }
+            @Override public T getIfAvailable() throws BeansException { return value; }
+            @Override public T getIfUnique() throws BeansException { return value; }
+            @Override public T getObject() throws BeansException { return value; }
+        };
+    }
+}
@@ -2,19 +2,48 @@ package com.example.health;
 
 import com.example.health.config.AppHealthProperties;
 import com.example.health.indicator.DatabaseHealthIndicator;
+import com.example.health.indicator.AsyncEndpointsHealthIndicator;
+import com.example.health.indicator.AsyncExternalServiceHealthIndicator;
+import com.example.health.indicator.CircuitBreakerHealthIndicator;
 import com.example.health.indicator.ExternalServiceHealthIndicator;
+import com.example.health.indicator.AsyncKafkaHealthIndicator;
 import com.example.health.indicator.KafkaHealthIndicator;
+import com.example.health.probe.AsyncKafkaProbe;
 import com.example.health.probe.KafkaProbe;
 import com.example.health.indicator.MongoHealthIndicator;
+import com.example.health.indicator.SharedHealthIndicator;
 import com.example.health.indicator.EndpointsHealthIndicator;
+import com.example.health.engine.CircuitBreaker;
+import com.example.health.engine.HealthEvaluator;
+import com.example.health.engine.HealthHistory;
+import com.example.health.engine.ProbeExecutors;
+import com.example.health.http.AsyncHttpProbeEngine;
+import com.example.health.http.HttpProbeEngine;
+import com.example.health.engine.SinglePassHealthContributor;
+import com.example.health.shared.InMemorySharedResultStore;
+import com.example.health.shared.ReflectiveMongoResultStore;
+import com.example.health.shared.ResultSharing;
+import com.example.health.shared.SharedResultStore;
+import com.example.health.snapshot.HealthSnapshotEngine;
+import com.example.health.group.LivenessGroup;
+import com.example.health.group.ReadinessGroup;
+import com.example.health.web.CustomHealthController;
+import com.example.health.web.HealthEventHub;
+import com.example.health.web.HealthEventsController;
+import com.example.health.web.HealthGroupsController;
+import com.example.health.web.HealthHistoryController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.health.CompositeHealthContributor;
 import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.availability.ApplicationAvailability;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -29,14 +58,18 @@ import java.util.*;
 
 import javax.sql.DataSource;
 import java.net.URI;
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import com.example.health.probe.DatabaseProbe;
 import com.example.health.probe.MongoProbe;
 import com.example.health.probe.impl.DefaultDatabaseProbe;
+import com.example.health.probe.impl.ReflectiveKafkaProbe;
 import com.example.health.probe.impl.ReflectiveMongoProbe;
 
-@AutoConfiguration
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"})
 @EnableConfigurationProperties(AppHealthProperties.class)
 @ConditionalOnProperty(prefix = "app.health", name = "enabled", havingValue = "true")
 public class AppHealthAutoConfiguration {
@@ -50,8 +83,14 @@ public class AppHealthAutoConfiguration {
             ConversionService conversionService,
             AppHealthProperties props,
             ObjectProvider<DataSource> dataSourceProvider,
-            ObjectProvider<RestClient> restClientProvider
+            ObjectProvider<RestClient> restClientProvider,
+            ObjectProvider<HealthEvaluator> evaluatorProvider,
+            ObjectProvider<HttpProbeEngine> httpProbeEngineProvider,
+            ObjectProvider<AsyncHttpProbeEngine> asyncHttpProbeEngineProvider,
+            ObjectProvider<ResultSharing> resultSharingProvider
         ) {
+        HttpProbeEngine httpProbes = httpProbeEngineProvider.getIfAvailable(HttpProbeEngine::new);
+        AsyncHttpProbeEngine asyncProbes = asyncHttpProbeEngineProvider.getIfAvailable(); // null unless async is enabled
         Map<String, HealthContributor> components = new LinkedHashMap<>();
 
         // DB: prefer Actuator's built-in contributor if present; else SPI/DataSource fallback
@@ -69,7 +108,8 @@ public class AppHealthAutoConfiguration {
                     if (dbProbe == null) {
                         DataSource ds = dataSourceProvider.getIfAvailable();
                         if (ds != null) {
-                            dbProbe = new DefaultDatabaseProbe(ds, props.getDb().getValidationQuery());
+                            dbProbe = new DefaultDatabaseProbe(ds, props.getDb().getValidationQuery(),
+                                    DefaultDatabaseProbe.Mode.of(props.getDb().getMode()), props.getDb().getQueryTimeout());
                         }
                     }
                 }
@@ -102,11 +142,13 @@ public class AppHealthAutoConfiguration {
                     if (mongoProbe == null) {
                         Object mt = getBeanByClassName(ctx, "org.springframework.data.mongodb.core.MongoTemplate");
                         if (mt != null) {
-                            mongoProbe = ReflectiveMongoProbe.fromMongoTemplate(mt, props.getMongo().getDatabase());
+                            mongoProbe = ReflectiveMongoProbe.fromMongoTemplate(mt, props.getMongo().getDatabase(),
+                                    ReflectiveMongoProbe.Mode.of(props.getMongo().getMode()));
                         } else {
                             Object mc = getBeanByClassName(ctx, "com.mongodb.client.MongoClient");
                             if (mc != null) {
-                                mongoProbe = ReflectiveMongoProbe.fromMongoClient(mc, props.getMongo().getDatabase());
+                                mongoProbe = ReflectiveMongoProbe.fromMongoClient(mc, props.getMongo().getDatabase(),
+                                        ReflectiveMongoProbe.Mode.of(props.getMongo().getMode()));
                             }
                         }
                     }
@@ -125,16 +167,25 @@ public class AppHealthAutoConfiguration {
             }
         }
 
-        // Kafka via SPI probe (no hard Kafka dependency)
+        // Kafka via SPI probe, else an Admin bean driven reflectively (no hard Kafka dependency)
         if (props.getKafka().isEnabled()) {
             try {
                 KafkaProbe probe;
                 if (StringUtils.hasText(props.getKafka().getProbeBean())) {
                     probe = (KafkaProbe) ctx.getBean(props.getKafka().getProbeBean());
                 } else {
-                    probe = ctx.getBean(KafkaProbe.class);
+                    probe = getBeanSafely(ctx, KafkaProbe.class);
+                    if (probe == null) {
+                        Object admin = getBeanByClassName(ctx, "org.apache.kafka.clients.admin.Admin");
+                        if (admin == null) {
+                            throw new IllegalStateException("No KafkaProbe or Kafka Admin bean");
+                        }
+                        probe = ReflectiveKafkaProbe.fromAdmin(admin, props.getKafka().getTopics(),
+                                props.getKafka().getMinInSyncReplicas(), props.timeoutFor("kafka"));
+                    }
                 }
-                components.put("kafka", new KafkaHealthIndicator(probe));
+                components.put("kafka", probe instanceof AsyncKafkaProbe async
+                        ? new AsyncKafkaHealthIndicator(async) : new KafkaHealthIndicator(probe));
             } catch (Exception e) {
                 log.atWarn()
                         .addKeyValue("event", "kafka_probe_missing")
@@ -151,10 +202,15 @@ public class AppHealthAutoConfiguration {
             if (!svc.isEnabled()) continue;
             if (!StringUtils.hasText(svc.getName())) continue;
             try {
-                RestClient rc = (RestClient) ctx.getBean(svc.getRestClientBean());
                 Object uriBean = ctx.getBean(svc.getUrlBean());
                 URI uri = convertToUri(uriBean, conversionService);
-                external.put(svc.getName(), new ExternalServiceHealthIndicator(svc.getName(), rc, uri));
+                Duration timeout = svc.getTimeout() != null ? svc.getTimeout() : props.getHttp().getTimeout();
+                if (asyncProbes != null) {
+                    external.put(svc.getName(), new AsyncExternalServiceHealthIndicator(svc.getName(), uri, asyncProbes, timeout));
+                } else {
+                    RestClient rc = (RestClient) ctx.getBean(svc.getRestClientBean());
+                    external.put(svc.getName(), new ExternalServiceHealthIndicator(svc.getName(), rc, uri, httpProbes, timeout));
+                }
             } catch (Exception e) {
                 log.atWarn()
                         .addKeyValue("event", "external_service_not_wired")
@@ -172,12 +228,22 @@ public class AppHealthAutoConfiguration {
         if (props.getEndpoints().isEnabled()) {
             RequestMappingHandlerMapping mapping;
             try {
-                mapping = ctx.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
-                RestClient rc = null;
-                if (props.getEndpoints().getRestClientBean() != null && !props.getEndpoints().getRestClientBean().isBlank()) {
-                    rc = (RestClient) ctx.getBean(props.getEndpoints().getRestClientBean());
+                Duration probeTimeout = props.getEndpoints().getProbeTimeout() != null
+                        ? props.getEndpoints().getProbeTimeout() : props.getHttp().getTimeout();
+                if (ctx instanceof org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext) {
+                    // WebFlux mappings and router functions, always probed without blocking
+                    components.put("endpoints", ReactiveWebConfiguration.endpoints(ctx, props, asyncProbes, probeTimeout));
+                } else if (asyncProbes != null) {
+                    mapping = ctx.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+                    components.put("endpoints", new AsyncEndpointsHealthIndicator(mapping, props.getEndpoints(), asyncProbes, probeTimeout));
+                } else {
+                    mapping = ctx.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+                    RestClient rc = null;
+                    if (props.getEndpoints().getRestClientBean() != null && !props.getEndpoints().getRestClientBean().isBlank()) {
+                        rc = (RestClient) ctx.getBean(props.getEndpoints().getRestClientBean());
+                    }
+                    components.put("endpoints", new EndpointsHealthIndicator(mapping, props.getEndpoints(), rc, httpProbes, probeTimeout));
                 }
-                components.put("endpoints", new EndpointsHealthIndicator(mapping, props.getEndpoints(), rc));
             } catch (Exception ex) {
                 log.atWarn()
                         .addKeyValue("event", "endpoints_mapping_missing")
@@ -187,11 +253,37 @@ public class AppHealthAutoConfiguration {
             }
         }
 
+        ResultSharing sharing = resultSharingProvider.getIfAvailable();
+        if (sharing != null) {
+            // inside the breakers: a breaker sees the shared result like any other
+            Set<String> shared = new HashSet<>(props.getSharing().getComponents());
+            components.replaceAll((name, contributor) -> shared.contains(name)
+                    ? SharedHealthIndicator.wrap(contributor, sharing, name) : contributor);
+        }
+
+        AppHealthProperties.CircuitBreaker cb = props.getCircuitBreaker();
+        if (cb.isEnabled()) {
+            // one breaker per probing leaf, e.g. each external service on its own
+            components.replaceAll((name, contributor) -> CircuitBreakerHealthIndicator.wrap(contributor,
+                    () -> new CircuitBreaker(cb.getFailureThreshold(), cb.getInitialBackoff(), cb.getMaxBackoff(), cb.getJitter())));
+        }
+
+        for (String reserved : CustomHealthController.RESERVED_NAMES) {
+            if (components.remove(reserved) != null) {
+                log.atWarn()
+                        .addKeyValue("event", "component_name_reserved")
+                        .addKeyValue("name", reserved)
+                        .log("component name is reserved; component skipped");
+            }
+        }
+
+        HealthEvaluator evaluator = evaluatorProvider.getIfAvailable(HealthEvaluator::new);
         CompositeHealthContributor composite = CompositeHealthContributor.fromMap(components);
-        // Add a flat summary as a child component
+        // Add a flat summary as a child component; it is derived from the other results, not probed
         Map<String, HealthContributor> withFlat = new LinkedHashMap<>(components);
-        withFlat.put("flat", new com.example.health.indicator.FlatSummaryHealthIndicator(composite));
-        return CompositeHealthContributor.fromMap(withFlat);
+        withFlat.put("flat", new com.example.health.indicator.FlatSummaryHealthIndicator(composite, evaluator));
+        return new SinglePassHealthContributor(CompositeHealthContributor.fromMap(withFlat), evaluator,
+                props.getEvaluation().getReuseWindow());
     }
 
     private URI convertToUri(Object bean, ConversionService conversionService) {
@@ -228,60 +320,374 @@ public class AppHealthAutoConfiguration {
         }
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    public HttpProbeEngine appHealthHttpProbeEngine(AppHealthProperties props) {
+        return new HttpProbeEngine(props.getHttp().getMethodRecheckInterval(), props.getHttp().getMaxConcurrentPerHost());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "app.health.http.async", name = "enabled", havingValue = "true")
+    public AsyncHttpProbeEngine appHealthAsyncHttpProbeEngine(ApplicationContext ctx, AppHealthProperties props) {
+        AppHealthProperties.Http.Async async = props.getHttp().getAsync();
+        java.net.http.HttpClient client = StringUtils.hasText(async.getClientBean())
+                ? ctx.getBean(async.getClientBean(), java.net.http.HttpClient.class)
+                : AsyncHttpProbeEngine.defaultClient(async.getConnectTimeout());
+        return new AsyncHttpProbeEngine(client, props.getHttp().getMethodRecheckInterval(), async.getMaxInFlight());
+    }
+
+    /** Store and lease bookkeeping for cross-replica result sharing. */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "app.health.sharing", name = "enabled", havingValue = "true")
+    public ResultSharing appHealthResultSharing(ApplicationContext ctx, AppHealthProperties props,
+                                                ObjectProvider<SharedResultStore> storeProvider,
+            @org.springframework.beans.factory.annotation.Qualifier("appHealthProbeExecutor") ExecutorService probeExecutor) {
+        AppHealthProperties.Sharing cfg = props.getSharing();
+        SharedResultStore store = storeProvider.getIfAvailable();
+        if (store == null && "mongo".equalsIgnoreCase(cfg.getStore())) {
+            Object mt = getBeanByClassName(ctx, "org.springframework.data.mongodb.core.MongoTemplate");
+            try {
+                if (mt == null) {
+                    throw new IllegalStateException("No MongoTemplate bean");
+                }
+                store = ReflectiveMongoResultStore.fromMongoTemplate(mt, cfg.getCollection());
+            } catch (Exception e) {
+                log.atWarn()
+                        .addKeyValue("event", "shared_store_missing")
+                        .addKeyValue("msg", "results-not-shared-across-replicas")
+                        .addKeyValue("errorKind", e.getClass().getSimpleName())
+                        .addKeyValue("error", sanitize(e.getMessage()))
+                        .log("shared result store missing");
+            }
+        }
+        if (store == null) {
+            store = new InMemorySharedResultStore();
+        }
+        String group = StringUtils.hasText(cfg.getGroup()) ? cfg.getGroup()
+                : ctx.getEnvironment().getProperty("spring.application.name", "application");
+        String instanceId = StringUtils.hasText(cfg.getInstanceId()) ? cfg.getInstanceId()
+                : StringUtils.hasText(System.getenv("HOSTNAME")) ? System.getenv("HOSTNAME") : UUID.randomUUID().toString();
+        return new ResultSharing(store, group, instanceId, cfg.getLeaseTtl(), cfg.getMaxAge(), probeExecutor);
+    }
+
+    /** The one executor probes run on: parallel evaluation and startup logging. */
+    @Bean(name = "appHealthProbeExecutor", destroyMethod = "shutdownNow")
+    @ConditionalOnMissingBean(name = "appHealthProbeExecutor")
+    public ExecutorService appHealthProbeExecutor(AppHealthProperties props) {
+        return ProbeExecutors.newExecutor(props.getProbeExecutor().isVirtualThreads(), props.getProbeExecutor().getMaxThreads());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HealthEvaluator appHealthEvaluator(AppHealthProperties props,
+            @org.springframework.beans.factory.annotation.Qualifier("appHealthProbeExecutor") ExecutorService probeExecutor) {
+        return new HealthEvaluator(props.getEvaluation().isParallel(), props::timeoutFor,
+                props.getEvaluation().getTimeout(),
+                props.getCoalescing().isEnabled() ? props.getCoalescing().getWindow() : null,
+                props.getLatency().isEnabled() ? props.getLatency().getWindow() : null,
+                props.getLatency().getSlots(), probeExecutor);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.health.coalescing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public InfoContributor appHealthCoalescingInfo(HealthEvaluator evaluator) {
+        return builder -> builder.withDetail("appHealthCoalescing", evaluator.coalescingStats());
+    }
+
+    /** Recent leaf results per component, recorded as the evaluator produces them. */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "app.health.history", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public HealthHistory appHealthHistory(AppHealthProperties props, HealthEvaluator evaluator) {
+        HealthHistory history = new HealthHistory(props.getHistory().getSize());
+        evaluator.addListener(history);
+        return history;
+    }
+
+    /** Reads only in-memory rings, so the one controller serves MVC and WebFlux apps. */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnWebApplication
+    @ConditionalOnProperty(prefix = "app.health.history", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public HealthHistoryController appHealthHistoryController(HealthHistory history) {
+        return new HealthHistoryController(history);
+    }
+
+    /** Status changes of every leaf, fanned out to SSE subscribers. */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnWebApplication
+    @ConditionalOnProperty(prefix = "app.health.events", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public HealthEventHub appHealthEventHub(AppHealthProperties props, HealthEvaluator evaluator,
+            ObjectProvider<com.fasterxml.jackson.databind.ObjectMapper> objectMapper) {
+        AppHealthProperties.Events events = props.getEvents();
+        HealthEventHub hub = new HealthEventHub(objectMapper.getIfAvailable(), events.getHeartbeat(),
+                events.getMaxSubscribers(), events.getMaxQueued());
+        evaluator.addListener(hub);
+        return hub;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = "app.health.events", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public HealthEventsController appHealthEventsController(HealthEventHub hub, AppHealthProperties props) {
+        return new HealthEventsController(hub, props.getEvents().getTimeout());
+    }
+
+    /** Probe timers and status gauges, only when Micrometer is on the classpath and a registry exists. */
+    @org.springframework.context.annotation.Configuration(proxyBeanMethods = false)
+    @org.springframework.boot.autoconfigure.condition.ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @ConditionalOnProperty(prefix = "app.health.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class MicrometerBridgeConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @org.springframework.boot.autoconfigure.condition.ConditionalOnBean(io.micrometer.core.instrument.MeterRegistry.class)
+        public com.example.health.metrics.MicrometerHealthMetrics appHealthMicrometerMetrics(
+                io.micrometer.core.instrument.MeterRegistry registry, HealthEvaluator evaluator) {
+            com.example.health.metrics.MicrometerHealthMetrics metrics = new com.example.health.metrics.MicrometerHealthMetrics(registry);
+            evaluator.addListener(metrics);
+            return metrics;
+        }
+    }
+
+    /**
+     * WebFlux apps: {@code /app-health/custom} is served reactively. Blocking probes of the
+     * {@code custom} tree run on a bounded elastic scheduler; async probes hold no thread.
+     */
+    @org.springframework.context.annotation.Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @org.springframework.boot.autoconfigure.condition.ConditionalOnClass(name = "reactor.core.publisher.Mono")
+    static class ReactiveWebConfiguration {
+
+        @Bean(name = "appHealthProbeScheduler", destroyMethod = "dispose")
+        @ConditionalOnMissingBean(name = "appHealthProbeScheduler")
+        public reactor.core.scheduler.Scheduler appHealthProbeScheduler(AppHealthProperties props) {
+            AppHealthProperties.Reactive reactive = props.getReactive();
+            return reactor.core.scheduler.Schedulers.newBoundedElastic(reactive.getMaxThreads(), reactive.getMaxQueued(),
+                    "app-health-probe");
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public com.example.health.reactive.ReactiveHealthEvaluator appHealthReactiveEvaluator(
+                AppHealthProperties props, HealthEvaluator evaluator) {
+            return new com.example.health.reactive.ReactiveHealthEvaluator(evaluator, props::timeoutFor,
+                    props.getEvaluation().getTimeout());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public com.example.health.web.ReactiveCustomHealthController reactiveCustomHealthController(
+                @org.springframework.beans.factory.annotation.Qualifier("custom") ObjectProvider<HealthContributor> custom,
+                ObjectProvider<HealthSnapshotEngine> snapshots,
+                com.example.health.reactive.ReactiveHealthEvaluator evaluator,
+                @org.springframework.beans.factory.annotation.Qualifier("appHealthProbeScheduler") reactor.core.scheduler.Scheduler scheduler,
+                ObjectProvider<com.fasterxml.jackson.databind.ObjectMapper> objectMapper) {
+            HealthContributor tree = custom.getIfAvailable();
+            return new com.example.health.web.ReactiveCustomHealthController(
+                    tree == null ? null : com.example.health.reactive.ReactiveHealthContributors.adapt(tree, scheduler),
+                    snapshots.getIfAvailable(), evaluator, objectMapper.getIfAvailable());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "app.health.events", name = "enabled", havingValue = "true", matchIfMissing = true)
+        public com.example.health.web.ReactiveHealthEventsController reactiveHealthEventsController(
+                HealthEventHub hub, AppHealthProperties props) {
+            return new com.example.health.web.ReactiveHealthEventsController(hub, props.getEvents().getMaxQueued());
+        }
+
+        /** Endpoints component over the WebFlux handler mapping and every {@code RouterFunction} bean. */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static HealthContributor endpoints(ApplicationContext ctx, AppHealthProperties props,
+                                           AsyncHttpProbeEngine asyncProbes, Duration probeTimeout) {
+            org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping mapping =
+                    ctx.containsBean("requestMappingHandlerMapping") ? ctx.getBean("requestMappingHandlerMapping",
+                            org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping.class) : null;
+            ObjectProvider<org.springframework.web.reactive.function.server.RouterFunction> routers =
+                    ctx.getBeanProvider(org.springframework.web.reactive.function.server.RouterFunction.class);
+            com.example.health.indicator.EndpointDescriptorIndex index = new com.example.health.indicator.EndpointDescriptorIndex(
+                    com.example.health.reactive.WebFluxEndpointMappings.of(mapping, () -> (List) routers.orderedStream().toList()),
+                    props.getEndpoints());
+            AsyncHttpProbeEngine engine = asyncProbes != null ? asyncProbes : new AsyncHttpProbeEngine(
+                    AsyncHttpProbeEngine.defaultClient(props.getHttp().getAsync().getConnectTimeout()),
+                    props.getHttp().getMethodRecheckInterval(), props.getHttp().getAsync().getMaxInFlight());
+            return new AsyncEndpointsHealthIndicator(index, props.getEndpoints(), engine, probeTimeout);
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "app.health.snapshot", name = "enabled", havingValue = "true")
+    public HealthSnapshotEngine appHealthSnapshotEngine(
+            @org.springframework.beans.factory.annotation.Qualifier("custom") HealthContributor custom,
+            AppHealthProperties props,
+            HealthEvaluator evaluator) {
+        return new HealthSnapshotEngine(custom, props, evaluator);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public CustomHealthController customHealthController(
+            @org.springframework.beans.factory.annotation.Qualifier("custom") ObjectProvider<HealthContributor> custom,
+            ObjectProvider<HealthSnapshotEngine> snapshots,
+            ObjectProvider<HealthEvaluator> evaluator,
+            ObjectProvider<com.fasterxml.jackson.databind.ObjectMapper> objectMapper) {
+        return new CustomHealthController(custom, snapshots, evaluator, objectMapper);
+    }
+
+    /** Liveness never leaves the process: the availability state plus the configured in-process indicators. */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "app.health.groups", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public LivenessGroup appHealthLivenessGroup(ApplicationContext ctx, AppHealthProperties props,
+                                                ObjectProvider<ApplicationAvailability> availability) {
+        org.springframework.boot.actuate.health.HealthContributorRegistry registry =
+                ctx.getBeanProvider(org.springframework.boot.actuate.health.HealthContributorRegistry.class).getIfAvailable();
+        Map<String, org.springframework.boot.actuate.health.HealthIndicator> members = new LinkedHashMap<>();
+        for (String name : props.getGroups().getLiveness().getMembers()) {
+            HealthContributor c = registry != null ? registry.getContributor(name) : null;
+            if (c == null) {
+                c = getHealthContributor(ctx, name);
+            }
+            if (c instanceof org.springframework.boot.actuate.health.HealthIndicator hi) {
+                members.put(name, hi);
+            } else {
+                log.atWarn()
+                        .addKeyValue("event", "liveness_member_missing")
+                        .addKeyValue("member", name)
+                        .log("liveness member is not a HealthIndicator");
+            }
+        }
+        return new LivenessGroup(availability.getIfAvailable(), members);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "app.health.groups", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ReadinessGroup appHealthReadinessGroup(
+            @org.springframework.beans.factory.annotation.Qualifier("custom") HealthContributor custom,
+            AppHealthProperties props,
+            ObjectProvider<HealthSnapshotEngine> snapshots,
+            HealthEvaluator evaluator,
+            ObjectProvider<ApplicationAvailability> availability,
+            @org.springframework.beans.factory.annotation.Qualifier("appHealthProbeExecutor") ExecutorService probeExecutor) {
+        AppHealthProperties.Groups.Readiness readiness = props.getGroups().getReadiness();
+        return new ReadinessGroup(custom, readiness.getMembers(), snapshots.getIfAvailable(), evaluator,
+                availability.getIfAvailable(), readiness.getMaxAge(), probeExecutor, props::timeoutFor);
+    }
+
+    /** Non-blocking handlers, so the one controller serves MVC and WebFlux apps. */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnWebApplication
+    @ConditionalOnProperty(prefix = "app.health.groups", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public HealthGroupsController appHealthGroupsController(LivenessGroup liveness, ReadinessGroup readiness,
+            ObjectProvider<com.fasterxml.jackson.databind.ObjectMapper> objectMapper) {
+        return new HealthGroupsController(liveness, readiness, objectMapper.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.health.endpoints", name = "enabled", havingValue = "true")
+    public ApplicationListener<org.springframework.context.event.ContextRefreshedEvent> appHealthEndpointIndexRefresher(
+            @org.springframework.beans.factory.annotation.Qualifier("custom") ObjectProvider<HealthContributor> custom) {
+        // build the endpoint listing once the mappings are final instead of on the first scrape
+        return event -> {
+            if (SinglePassHealthContributor.unwrap(custom.getIfAvailable()) instanceof CompositeHealthContributor composite
+                    && SharedHealthIndicator.unwrap(CircuitBreakerHealthIndicator.unwrap(composite.getContributor("endpoints")))
+                            instanceof EndpointsHealthIndicator endpoints) {
+                endpoints.getIndex().rebuild();
+            }
+        };
+    }
+
     @Bean
     @ConditionalOnProperty(prefix = "app.health", name = "startupLog", havingValue = "true", matchIfMissing = true)
     public ApplicationListener<ApplicationReadyEvent> appHealthStartupLogger(
             @org.springframework.beans.factory.annotation.Qualifier("custom") HealthContributor custom,
-            AppHealthProperties props) {
-        return event -> java.util.concurrent.CompletableFuture.runAsync(() ->
-                logContributorsParallel(custom, props.getStartupTimeoutMs()));
+            AppHealthProperties props,
+            @org.springframework.beans.factory.annotation.Qualifier("appHealthProbeExecutor") ExecutorService probeExecutor) {
+        return event -> Thread.ofVirtual().name("app-health-startup-log").start(() ->
+                logContributorsParallel(custom, props.getStartupTimeoutMs(), probeExecutor));
     }
 
-    private void logContributorsParallel(HealthContributor root, int timeoutMs) {
+    /**
+     * Probes every leaf on the shared executor and logs each component as soon as it reports; a
+     * probe still running at the deadline is cancelled (its thread interrupted) and logged DOWN.
+     * The summary follows once every component is accounted for.
+     */
+    private void logContributorsParallel(HealthContributor root, int timeoutMs, ExecutorService probeExecutor) {
         List<Map.Entry<String, org.springframework.boot.actuate.health.HealthIndicator>> indicators = new ArrayList<>();
-        collectIndicators("custom", root, indicators);
+        collectIndicators("custom", SinglePassHealthContributor.unwrap(root), indicators);
 
-        int threads = Math.max(2, Math.min(Runtime.getRuntime().availableProcessors(), indicators.size()));
-        ExecutorService exec = Executors.newFixedThreadPool(threads);
-        try {
-            List<Map.Entry<String, CompletableFuture<org.springframework.boot.actuate.health.Health>>> futures = new ArrayList<>();
-            for (var e : indicators) {
-                CompletableFuture<org.springframework.boot.actuate.health.Health> f = CompletableFuture
-                        .supplyAsync(() -> e.getValue().health(), exec)
-                        .orTimeout(Math.max(1, timeoutMs), TimeUnit.MILLISECONDS)
-                        .exceptionally(ex -> org.springframework.boot.actuate.health.Health.down()
-                                .withDetail("errorKind", ex.getClass().getSimpleName())
-                                .withDetail("error", ex.getMessage())
-                                .build());
-                futures.add(Map.entry(e.getKey(), f));
-            }
+        CompletionService<org.springframework.boot.actuate.health.Health> done = new ExecutorCompletionService<>(probeExecutor);
+        Map<Future<org.springframework.boot.actuate.health.Health>, String> pending = new LinkedHashMap<>();
+        for (var e : indicators) {
+            pending.put(done.submit(() -> e.getValue().health()), e.getKey());
+        }
 
-            Status worst = Status.UP;
-            for (var ef : futures) {
-                var h = ef.getValue().join();
-                worst = worseOf(worst, h.getStatus());
-            }
-            log.atInfo()
-                    .addKeyValue("event", "app_health_summary")
-                    .addKeyValue("status", worst.getCode())
-                    .addKeyValue("components", indicators.size())
-                    .log("app health summary");
-
-            for (var ef : futures) {
-                var h = ef.getValue().join();
-                Object ms = h.getDetails().getOrDefault("latencyMs", "");
-                var builder = log.atInfo()
-                        .addKeyValue("event", "app_health_component")
-                        .addKeyValue("path", ef.getKey())
-                        .addKeyValue("status", h.getStatus().getCode());
-                if (ms != null && !ms.toString().isEmpty()) {
-                    builder.addKeyValue("latencyMs", ms);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(1, timeoutMs));
+        Status worst = Status.UP;
+        try {
+            while (!pending.isEmpty()) {
+                Future<org.springframework.boot.actuate.health.Health> f = done.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (f == null) {
+                    break;
                 }
-                builder.log("app health component");
+                var h = resultOf(f);
+                worst = worseOf(worst, h.getStatus());
+                logComponent(pending.remove(f), h);
             }
-        } finally {
-            exec.shutdown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (var late : pending.entrySet()) {
+            late.getKey().cancel(true);
+            var h = org.springframework.boot.actuate.health.Health.down()
+                    .withDetail("errorKind", "TimeoutException")
+                    .withDetail("error", "no result within " + timeoutMs + "ms")
+                    .build();
+            worst = worseOf(worst, h.getStatus());
+            logComponent(late.getValue(), h);
+        }
+        log.atInfo()
+                .addKeyValue("event", "app_health_summary")
+                .addKeyValue("status", worst.getCode())
+                .addKeyValue("components", indicators.size())
+                .log("app health summary");
+    }
+
+    private org.springframework.boot.actuate.health.Health resultOf(Future<org.springframework.boot.actuate.health.Health> f) {
+        try {
+            var h = f.get();
+            return h != null ? h : org.springframework.boot.actuate.health.Health.unknown().withDetail("error", "nullResult").build();
+        } catch (Exception ex) {
+            Throwable cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+            return org.springframework.boot.actuate.health.Health.down()
+                    .withDetail("errorKind", cause.getClass().getSimpleName())
+                    .withDetail("error", String.valueOf(cause.getMessage()))
+                    .build();
+        }
+    }
+
+    private void logComponent(String path, org.springframework.boot.actuate.health.Health h) {
+        Object ms = h.getDetails().getOrDefault("latencyMs", "");
+        var builder = log.atInfo()
+                .addKeyValue("event", "app_health_component")
+                .addKeyValue("path", path)
+                .addKeyValue("status", h.getStatus().getCode());
+        if (ms != null && !ms.toString().isEmpty()) {
+            builder.addKeyValue("latencyMs", ms);
+        }
+        if (h.getDetails().containsKey("errorKind")) {
+            builder.addKeyValue("errorKind", h.getDetails().get("errorKind"));
         }
+        builder.log("app health component");
     }
 
     private void collectIndicators(String path, HealthContributor contributor,
@@ -291,6 +697,8 @@ public class AppHealthAutoConfiguration {
                 String next = path.equals("custom") ? named.getName() : path + "." + named.getName();
                 collectIndicators(next, named.getContributor(), out);
             });
+        } else if (contributor instanceof com.example.health.engine.DerivedHealthIndicator) {
+            // projections of the other results (e.g. flat); nothing to probe
         } else if (contributor instanceof org.springframework.boot.actuate.health.HealthIndicator hi) {
             out.add(Map.entry(path, hi));
         }
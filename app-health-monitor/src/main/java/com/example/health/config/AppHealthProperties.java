@@ -2,6 +2,7 @@ package com.example.health.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,6 +16,18 @@ public class AppHealthProperties {
     private final Kafka kafka = new Kafka();
     private final External external = new External();
     private final Endpoints endpoints = new Endpoints();
+    private final Snapshot snapshot = new Snapshot();
+    private final Evaluation evaluation = new Evaluation();
+    private final Coalescing coalescing = new Coalescing();
+    private final Http http = new Http();
+    private final Latency latency = new Latency();
+    private final History history = new History();
+    private final Events events = new Events();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private final ProbeExecutor probeExecutor = new ProbeExecutor();
+    private final Reactive reactive = new Reactive();
+    private final Groups groups = new Groups();
+    private final Sharing sharing = new Sharing();
 
     public boolean isEnabled() { return enabled; }
     public void setEnabled(boolean enabled) { this.enabled = enabled; }
@@ -29,16 +42,363 @@ public class AppHealthProperties {
     public Kafka getKafka() { return kafka; }
     public External getExternal() { return external; }
     public Endpoints getEndpoints() { return endpoints; }
+    public Snapshot getSnapshot() { return snapshot; }
+    public Evaluation getEvaluation() { return evaluation; }
+    public Coalescing getCoalescing() { return coalescing; }
+    public Http getHttp() { return http; }
+    public Latency getLatency() { return latency; }
+    public History getHistory() { return history; }
+    public Events getEvents() { return events; }
+    public CircuitBreaker getCircuitBreaker() { return circuitBreaker; }
+    public ProbeExecutor getProbeExecutor() { return probeExecutor; }
+    public Reactive getReactive() { return reactive; }
+    public Groups getGroups() { return groups; }
+    public Sharing getSharing() { return sharing; }
 
-    public static class Db {
+    /** Settings of a top-level component by name, or null for unknown/custom components. */
+    public Component component(String name) {
+        if (name == null) return null;
+        return switch (name) {
+            case "db" -> db;
+            case "mongo" -> mongo;
+            case "kafka" -> kafka;
+            case "external" -> external;
+            case "endpoints" -> endpoints;
+            default -> null;
+        };
+    }
+
+    /** Refresh interval of a top-level component, falling back to {@code app.health.snapshot.refreshInterval}. */
+    public Duration refreshIntervalFor(String component) {
+        Component c = component(component);
+        Duration d = c != null ? c.getRefreshInterval() : null;
+        return d != null ? d : snapshot.getRefreshInterval();
+    }
+
+    /** Shortest background refresh interval of a component (used while it is down or flapping). */
+    public Duration minRefreshIntervalFor(String component) {
+        Component c = component(component);
+        Duration d = c != null ? c.getMinRefreshInterval() : null;
+        if (d == null) d = snapshot.getMinRefreshInterval();
+        return d != null ? d : refreshIntervalFor(component);
+    }
+
+    /** Longest background refresh interval of a component (reached while it stays up). */
+    public Duration maxRefreshIntervalFor(String component) {
+        Component c = component(component);
+        Duration d = c != null ? c.getMaxRefreshInterval() : null;
+        if (d == null) d = snapshot.getMaxRefreshInterval();
+        return d != null ? d : refreshIntervalFor(component);
+    }
+
+    /** Probe timeout of a top-level component, falling back to {@code app.health.evaluation.componentTimeout}. */
+    public Duration timeoutFor(String component) {
+        Component c = component(component);
+        Duration d = c != null ? c.getTimeout() : null;
+        return d != null ? d : evaluation.getComponentTimeout();
+    }
+
+    /** Settings shared by every top-level component. */
+    public abstract static class Component {
+        private Duration refreshInterval; // null -> app.health.snapshot.refreshInterval
+        private Duration minRefreshInterval; // null -> app.health.snapshot.minRefreshInterval, then refreshInterval
+        private Duration maxRefreshInterval; // null -> app.health.snapshot.maxRefreshInterval, then refreshInterval
+        private Duration timeout; // null -> app.health.evaluation.componentTimeout
+
+        public Duration getRefreshInterval() { return refreshInterval; }
+        public void setRefreshInterval(Duration refreshInterval) { this.refreshInterval = refreshInterval; }
+        public Duration getMinRefreshInterval() { return minRefreshInterval; }
+        public void setMinRefreshInterval(Duration minRefreshInterval) { this.minRefreshInterval = minRefreshInterval; }
+        public Duration getMaxRefreshInterval() { return maxRefreshInterval; }
+        public void setMaxRefreshInterval(Duration maxRefreshInterval) { this.maxRefreshInterval = maxRefreshInterval; }
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+    }
+
+    public static class Evaluation {
+        /** Fan out all leaf indicators at once on virtual threads instead of walking the tree sequentially. */
+        private boolean parallel = false;
+        /** Default per-component budget in parallel mode; late components are reported UNKNOWN with timedOut=true. */
+        private Duration componentTimeout = Duration.ofSeconds(2);
+        /** Budget for a whole evaluation in parallel mode. */
+        private Duration timeout = Duration.ofSeconds(3);
+        /** Actuator evaluates children of {@code custom} one by one; calls within this window share one pass. */
+        private Duration reuseWindow = Duration.ofSeconds(1);
+
+        public boolean isParallel() { return parallel; }
+        public void setParallel(boolean parallel) { this.parallel = parallel; }
+        public Duration getComponentTimeout() { return componentTimeout; }
+        public void setComponentTimeout(Duration componentTimeout) { this.componentTimeout = componentTimeout; }
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+        public Duration getReuseWindow() { return reuseWindow; }
+        public void setReuseWindow(Duration reuseWindow) { this.reuseWindow = reuseWindow; }
+    }
+
+    public static class Coalescing {
+        /** Concurrent evaluations of the same tree or indicator share one execution. */
+        private boolean enabled = true;
+        /** A result completed less than this long ago is also shared; zero shares only in-flight work. */
+        private Duration window = Duration.ofMillis(500);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public Duration getWindow() { return window; }
+        public void setWindow(Duration window) { this.window = window; }
+    }
+
+    public static class Latency {
+        /** Per-component latency histograms; details then report p50/p90/p99/max. Opt-in: it changes the body. */
+        private boolean enabled = false;
+        /** Percentiles cover calls made within this sliding window. */
+        private Duration window = Duration.ofMinutes(1);
+        /** Intervals the window is divided into (at most 64); it advances one interval at a time. */
+        private int slots = 6;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public Duration getWindow() { return window; }
+        public void setWindow(Duration window) { this.window = window; }
+        public int getSlots() { return slots; }
+        public void setSlots(int slots) { this.slots = slots; }
+    }
+
+    public static class History {
+        /** Keep the most recent results of every component, served at /app-health/custom/history. */
+        private boolean enabled = true;
+        /** Results kept per component; rounded up to a power of two. */
+        private int size = 64;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getSize() { return size; }
+        public void setSize(int size) { this.size = size; }
+    }
+
+    public static class Events {
+        /** Status changes as Server-Sent Events at /app-health/custom/events. */
+        private boolean enabled = true;
+        /** Comment frames on idle streams, so proxies do not close them. */
+        private Duration heartbeat = Duration.ofSeconds(15);
+        /** Streams open at once; further subscribers get 503. */
+        private int maxSubscribers = 1000;
+        /** Events a subscriber may fall behind before it is disconnected. */
+        private int maxQueued = 256;
+        /** MVC only: a stream is closed after this long and the client reconnects. */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public Duration getHeartbeat() { return heartbeat; }
+        public void setHeartbeat(Duration heartbeat) { this.heartbeat = heartbeat; }
+        public int getMaxSubscribers() { return maxSubscribers; }
+        public void setMaxSubscribers(int maxSubscribers) { this.maxSubscribers = maxSubscribers; }
+        public int getMaxQueued() { return maxQueued; }
+        public void setMaxQueued(int maxQueued) { this.maxQueued = maxQueued; }
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+    }
+
+    public static class ProbeExecutor {
+        /** Run probes on virtual threads; false uses at most {@code maxThreads} platform threads. */
+        private boolean virtualThreads = true;
+        /** Platform threads when virtual threads are off; further probes wait in a queue. */
+        private int maxThreads = 8;
+
+        public boolean isVirtualThreads() { return virtualThreads; }
+        public void setVirtualThreads(boolean virtualThreads) { this.virtualThreads = virtualThreads; }
+        public int getMaxThreads() { return maxThreads; }
+        public void setMaxThreads(int maxThreads) { this.maxThreads = maxThreads; }
+    }
+
+    public static class Reactive {
+        /** Threads of the bounded elastic scheduler that blocking probes run on in WebFlux apps. */
+        private int maxThreads = 10 * Runtime.getRuntime().availableProcessors();
+        /** Probes that may wait for one of those threads before further ones are rejected. */
+        private int maxQueued = 10_000;
+
+        public int getMaxThreads() { return maxThreads; }
+        public void setMaxThreads(int maxThreads) { this.maxThreads = maxThreads; }
+        public int getMaxQueued() { return maxQueued; }
+        public void setMaxQueued(int maxQueued) { this.maxQueued = maxQueued; }
+    }
+
+    /** {@code /app-health/liveness} and {@code /app-health/readiness}. */
+    public static class Groups {
+        private boolean enabled = true;
+        private final Liveness liveness = new Liveness();
+        private final Readiness readiness = new Readiness();
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public Liveness getLiveness() { return liveness; }
+        public Readiness getReadiness() { return readiness; }
+
+        public static class Liveness {
+            /** In-process indicators only (Actuator contributor or HealthIndicator bean names), e.g. ["diskSpace"]. */
+            private List<String> members = new ArrayList<>();
+
+            public List<String> getMembers() { return members; }
+            public void setMembers(List<String> members) { this.members = members; }
+        }
+
+        public static class Readiness {
+            /** Component paths of the custom tree, e.g. ["db", "external.httpbin"]; empty means all components. */
+            private List<String> members = new ArrayList<>();
+            /** Without snapshots: cached results older than this are refreshed in the background. */
+            private Duration maxAge = Duration.ofSeconds(30);
+
+            public List<String> getMembers() { return members; }
+            public void setMembers(List<String> members) { this.members = members; }
+            public Duration getMaxAge() { return maxAge; }
+            public void setMaxAge(Duration maxAge) { this.maxAge = maxAge; }
+        }
+    }
+
+    /** Replicas share probe results of shared dependencies; one replica per dependency probes at a time. */
+    public static class Sharing {
+        private boolean enabled = false;
+        /** mongo (a collection next to the detected MongoTemplate) | memory (this JVM only); a SharedResultStore bean wins. */
+        private String store = "mongo";
+        private String collection = "app_health_shared";
+        /** Top-level components whose leaves are shared; db and endpoints are specific to each instance. */
+        private List<String> components = new ArrayList<>(List.of("mongo", "kafka", "external"));
+        /** An owner that has not probed for this long loses its lease; keep it above the refresh interval. */
+        private Duration leaseTtl = Duration.ofSeconds(60);
+        /** Shared results older than this are ignored and the replica probes locally. */
+        private Duration maxAge = Duration.ofSeconds(90);
+        /** Replicas with the same group share results; null means spring.application.name. */
+        private String group;
+        /** This replica's id; null means the HOSTNAME environment variable (the pod name), else a random id. */
+        private String instanceId;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public String getStore() { return store; }
+        public void setStore(String store) { this.store = store; }
+        public String getCollection() { return collection; }
+        public void setCollection(String collection) { this.collection = collection; }
+        public List<String> getComponents() { return components; }
+        public void setComponents(List<String> components) { this.components = components; }
+        public Duration getLeaseTtl() { return leaseTtl; }
+        public void setLeaseTtl(Duration leaseTtl) { this.leaseTtl = leaseTtl; }
+        public Duration getMaxAge() { return maxAge; }
+        public void setMaxAge(Duration maxAge) { this.maxAge = maxAge; }
+        public String getGroup() { return group; }
+        public void setGroup(String group) { this.group = group; }
+        public String getInstanceId() { return instanceId; }
+        public void setInstanceId(String instanceId) { this.instanceId = instanceId; }
+    }
+
+    public static class CircuitBreaker {
+        /** Stop probing a failing dependency and report its last DOWN result until a recovery check is due. */
+        private boolean enabled = false;
+        /** Consecutive DOWN results (or errors) that open a component's circuit. */
+        private int failureThreshold = 3;
+        /** Wait before the first recovery check; doubled after every failed check. */
+        private Duration initialBackoff = Duration.ofSeconds(5);
+        private Duration maxBackoff = Duration.ofMinutes(5);
+        /** Up to this fraction of each wait is taken off at random, so replicas do not check in lockstep. */
+        private double jitter = 0.2;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getFailureThreshold() { return failureThreshold; }
+        public void setFailureThreshold(int failureThreshold) { this.failureThreshold = failureThreshold; }
+        public Duration getInitialBackoff() { return initialBackoff; }
+        public void setInitialBackoff(Duration initialBackoff) { this.initialBackoff = initialBackoff; }
+        public Duration getMaxBackoff() { return maxBackoff; }
+        public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+        public double getJitter() { return jitter; }
+        public void setJitter(double jitter) { this.jitter = jitter; }
+    }
+
+    public static class Http {
+        /** Default deadline of one HTTP probe (external service or endpoint), fallbacks included. */
+        private Duration timeout = Duration.ofSeconds(2);
+        /** How long a negotiated method (HEAD/GET/OPTIONS) is reused before it is checked again. */
+        private Duration methodRecheckInterval = Duration.ofMinutes(10);
+        private int maxConcurrentPerHost = 4;
+        private Async async = new Async();
+
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+        public Duration getMethodRecheckInterval() { return methodRecheckInterval; }
+        public void setMethodRecheckInterval(Duration methodRecheckInterval) { this.methodRecheckInterval = methodRecheckInterval; }
+        public int getMaxConcurrentPerHost() { return maxConcurrentPerHost; }
+        public void setMaxConcurrentPerHost(int maxConcurrentPerHost) { this.maxConcurrentPerHost = maxConcurrentPerHost; }
+        public Async getAsync() { return async; }
+        public void setAsync(Async async) { this.async = async; }
+
+        public static class Async {
+            /** When true, external services and endpoint probes use the non-blocking JDK HttpClient engine. */
+            private boolean enabled = false;
+            /** Requests outstanding at once across all targets; further probes are queued. */
+            private int maxInFlight = 64;
+            /** Connect timeout of the client created when no {@code clientBean} is given. */
+            private Duration connectTimeout = Duration.ofSeconds(1);
+            /** Optional bean name of a java.net.http.HttpClient to probe with */
+            private String clientBean;
+
+            public boolean isEnabled() { return enabled; }
+            public void setEnabled(boolean enabled) { this.enabled = enabled; }
+            public int getMaxInFlight() { return maxInFlight; }
+            public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+            public Duration getConnectTimeout() { return connectTimeout; }
+            public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+            public String getClientBean() { return clientBean; }
+            public void setClientBean(String clientBean) { this.clientBean = clientBean; }
+        }
+    }
+
+    public static class Snapshot {
+        /** When true, components are probed in the background and requests are served from the last snapshot. */
+        private boolean enabled = false;
+        /** Default refresh interval for components without their own refreshInterval. */
+        private Duration refreshInterval = Duration.ofSeconds(30);
+        /** Default shortest interval, used while a component is down or has just changed status. */
+        private Duration minRefreshInterval;
+        /** Default longest interval; a component that stays up backs off towards it. */
+        private Duration maxRefreshInterval;
+        /** Each delay is randomised by up to this fraction either way, so replicas drift apart. */
+        private double jitter = 0.1;
+        /** A component is reported stale once its result is older than this many (maximum) refresh intervals. */
+        private int staleAfterIntervals = 3;
+        private int threads = 2;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public Duration getRefreshInterval() { return refreshInterval; }
+        public void setRefreshInterval(Duration refreshInterval) { this.refreshInterval = refreshInterval; }
+        public Duration getMinRefreshInterval() { return minRefreshInterval; }
+        public void setMinRefreshInterval(Duration minRefreshInterval) { this.minRefreshInterval = minRefreshInterval; }
+        public Duration getMaxRefreshInterval() { return maxRefreshInterval; }
+        public void setMaxRefreshInterval(Duration maxRefreshInterval) { this.maxRefreshInterval = maxRefreshInterval; }
+        public double getJitter() { return jitter; }
+        public void setJitter(double jitter) { this.jitter = jitter; }
+        public int getStaleAfterIntervals() { return staleAfterIntervals; }
+        public void setStaleAfterIntervals(int staleAfterIntervals) { this.staleAfterIntervals = staleAfterIntervals; }
+        public int getThreads() { return threads; }
+        public void setThreads(int threads) { this.threads = threads; }
+    }
+
+    public static class Db extends Component {
         private boolean enabled = true;
         private String validationQuery = "SELECT 1";
         private String type = "jdbc"; // e.g., postgres, mysql
         /** Optional bean name implementing com.example.health.probe.DatabaseProbe */
         private String probeBean;
+        /** Fallback probe validation: query (runs validationQuery) | isValid (Connection.isValid). */
+        private String mode = "query";
+        /** Timeout of the validation query or isValid check; JDBC rounds it up to whole seconds. */
+        private Duration queryTimeout = Duration.ofSeconds(2);
 
         public boolean isEnabled() { return enabled; }
         public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public String getMode() { return mode; }
+        public void setMode(String mode) { this.mode = mode; }
+        public Duration getQueryTimeout() { return queryTimeout; }
+        public void setQueryTimeout(Duration queryTimeout) { this.queryTimeout = queryTimeout; }
         public String getValidationQuery() { return validationQuery; }
         public void setValidationQuery(String validationQuery) { this.validationQuery = validationQuery; }
         public String getType() { return type; }
@@ -47,23 +407,32 @@ public class AppHealthProperties {
         public void setProbeBean(String probeBean) { this.probeBean = probeBean; }
     }
 
-    public static class Kafka {
+    public static class Kafka extends Component {
         private boolean enabled = false;
         /** Optional bean name implementing com.example.health.probe.KafkaProbe */
         private String probeBean;
+        /** Critical topics checked by the built-in probe: must exist, with a leader and min ISR on every partition. */
+        private List<String> topics = new ArrayList<>();
+        /** Partitions of a critical topic with fewer in-sync replicas are DOWN. */
+        private int minInSyncReplicas = 1;
 
         public boolean isEnabled() { return enabled; }
         public void setEnabled(boolean enabled) { this.enabled = enabled; }
         public String getProbeBean() { return probeBean; }
         public void setProbeBean(String probeBean) { this.probeBean = probeBean; }
+        public List<String> getTopics() { return topics; }
+        public void setTopics(List<String> topics) { this.topics = topics; }
+        public int getMinInSyncReplicas() { return minInSyncReplicas; }
+        public void setMinInSyncReplicas(int minInSyncReplicas) { this.minInSyncReplicas = minInSyncReplicas; }
     }
 
-    public static class Mongo {
+    public static class Mongo extends Component {
         private boolean enabled = false;
-        /** Strategy: list collection names on the configured database; no ping. */
         private String database = null; // null means use default from MongoTemplate
         /** Optional bean name implementing com.example.health.probe.MongoProbe */
         private String probeBean;
+        /** Fallback probe: ping | hello (one runCommand round-trip) | listCollections (first collection name). */
+        private String mode = "listCollections";
 
         public boolean isEnabled() { return enabled; }
         public void setEnabled(boolean enabled) { this.enabled = enabled; }
@@ -71,9 +440,11 @@ public class AppHealthProperties {
         public void setDatabase(String database) { this.database = database; }
         public String getProbeBean() { return probeBean; }
         public void setProbeBean(String probeBean) { this.probeBean = probeBean; }
+        public String getMode() { return mode; }
+        public void setMode(String mode) { this.mode = mode; }
     }
 
-    public static class Endpoints {
+    public static class Endpoints extends Component {
         private boolean enabled = false;
         private boolean includeActuator = false;
         private boolean includeError = false;
@@ -84,6 +455,7 @@ public class AppHealthProperties {
         private String probeMethod = "HEAD"; // HEAD | GET | OPTIONS
         private boolean allowGetFallback = true;
         private boolean allowOptionsFallback = true;
+        private Duration probeTimeout; // null -> app.health.http.timeout
 
         public boolean isEnabled() { return enabled; }
         public void setEnabled(boolean enabled) { this.enabled = enabled; }
@@ -105,9 +477,11 @@ public class AppHealthProperties {
         public void setAllowGetFallback(boolean allowGetFallback) { this.allowGetFallback = allowGetFallback; }
         public boolean isAllowOptionsFallback() { return allowOptionsFallback; }
         public void setAllowOptionsFallback(boolean allowOptionsFallback) { this.allowOptionsFallback = allowOptionsFallback; }
+        public Duration getProbeTimeout() { return probeTimeout; }
+        public void setProbeTimeout(Duration probeTimeout) { this.probeTimeout = probeTimeout; }
     }
 
-    public static class External {
+    public static class External extends Component {
         private List<Service> services = new ArrayList<>();
         public List<Service> getServices() { return services; }
         public void setServices(List<Service> services) { this.services = services; }
@@ -117,6 +491,7 @@ public class AppHealthProperties {
             private boolean enabled = true;
             private String restClientBean;
             private String urlBean;
+            private Duration timeout; // null -> app.health.http.timeout
 
             public String getName() { return name; }
             public void setName(String name) { this.name = name; }
@@ -126,6 +501,8 @@ public class AppHealthProperties {
             public void setRestClientBean(String restClientBean) { this.restClientBean = restClientBean; }
             public String getUrlBean() { return urlBean; }
             public void setUrlBean(String urlBean) { this.urlBean = urlBean; }
+            public Duration getTimeout() { return timeout; }
+            public void setTimeout(Duration timeout) { this.timeout = timeout; }
         }
     }
 }
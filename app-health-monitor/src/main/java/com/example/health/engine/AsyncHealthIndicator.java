@@ -0,0 +1,20 @@
+package com.example.health.engine;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An indicator that can report without holding a thread while it waits. In parallel mode the
+ * evaluator uses {@link #healthAsync()} directly; everywhere else {@link #health()} blocks on it.
+ */
+public interface AsyncHealthIndicator extends HealthIndicator {
+
+    CompletableFuture<Health> healthAsync();
+
+    @Override
+    default Health health() {
+        return healthAsync().join();
+    }
+}
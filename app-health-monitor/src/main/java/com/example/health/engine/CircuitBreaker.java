@@ -0,0 +1,115 @@
+package com.example.health.engine;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Circuit breaker of one probed component. After {@code failureThreshold} consecutive DOWN
+ * results (or exceptions) the circuit opens: callers get the last DOWN result straight away,
+ * with {@code circuit=open} and {@code nextAttemptIn}, instead of waiting on the dependency.
+ * When the wait is over a single caller makes a recovery check; success closes the circuit,
+ * failure reopens it with twice the previous wait (up to {@code maxBackoff}), less a random
+ * fraction of up to {@code jitter} so that replicas do not check in lockstep.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final double jitter;
+
+    private State state = State.CLOSED;
+    private int failures;       // consecutive
+    private int openings;       // consecutive failed recovery checks + 1 while not closed
+    private long nextAttemptAt; // System.nanoTime() of the next recovery check
+    private long backoffNanos;  // current wait; a recovery check that takes longer is given up on
+    private Health lastFailure;
+
+    public CircuitBreaker(int failureThreshold, Duration initialBackoff, Duration maxBackoff, double jitter) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.initialBackoffNanos = Math.max(1, initialBackoff.toNanos());
+        this.maxBackoffNanos = Math.max(initialBackoffNanos, maxBackoff.toNanos());
+        this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+    }
+
+    /**
+     * Null when the probe may run; otherwise the result to report instead. Once the wait is
+     * over, the first caller is let through as the recovery check.
+     */
+    public synchronized Health tryAcquire() {
+        if (state == State.CLOSED) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - nextAttemptAt >= 0) {
+            // also when a recovery check has been outstanding for a whole backoff (it hung)
+            state = State.HALF_OPEN;
+            nextAttemptAt = now + backoffNanos;
+            return null;
+        }
+        return openResult(now);
+    }
+
+    /** Records the outcome of a probe that was let through; returns what to report for it. */
+    public synchronized Health onResult(Health health) {
+        if (!Status.DOWN.equals(health.getStatus())) {
+            state = State.CLOSED;
+            failures = 0;
+            openings = 0;
+            lastFailure = null;
+            return health;
+        }
+        failures++;
+        lastFailure = health;
+        if (state == State.OPEN) {
+            return openResult(System.nanoTime()); // a call that started before the circuit opened
+        }
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            open();
+            return openResult(System.nanoTime());
+        }
+        return health;
+    }
+
+    /** An exception counts as a DOWN result with its kind and message. */
+    public Health onError(Throwable error) {
+        return onResult(Health.down()
+                .withDetail("errorKind", error.getClass().getSimpleName())
+                .withDetail("error", String.valueOf(error.getMessage()))
+                .build());
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        openings++;
+        long backoff = initialBackoffNanos;
+        for (int i = 1; i < openings && backoff < maxBackoffNanos; i++) {
+            backoff <<= 1;
+        }
+        backoff = Math.min(backoff, maxBackoffNanos);
+        if (jitter > 0) {
+            backoff -= (long) (backoff * jitter * ThreadLocalRandom.current().nextDouble());
+        }
+        backoffNanos = backoff;
+        nextAttemptAt = System.nanoTime() + backoff;
+        state = State.OPEN;
+    }
+
+    private Health openResult(long now) {
+        long waitMs = Math.max(0, (nextAttemptAt - now) / 1_000_000);
+        return Health.status(lastFailure.getStatus())
+                .withDetails(lastFailure.getDetails())
+                .withDetail("circuit", state == State.HALF_OPEN ? "halfOpen" : "open")
+                .withDetail("nextAttemptIn", waitMs + "ms")
+                .withDetail("consecutiveFailures", failures)
+                .build();
+    }
+}
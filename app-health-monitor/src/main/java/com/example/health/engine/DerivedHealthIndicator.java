@@ -0,0 +1,13 @@
+package com.example.health.engine;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * An indicator whose result is a projection of its siblings' results. The evaluator runs the
+ * siblings first and then calls {@link #derive} instead of {@link #health()}, so nothing is
+ * probed twice in one pass.
+ */
+public interface DerivedHealthIndicator extends HealthIndicator {
+    Health derive(HealthResult siblings);
+}
@@ -0,0 +1,436 @@
+package com.example.health.engine;
+
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.NamedContributor;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Evaluates a contributor tree into an immutable {@link HealthResult}. Indicator failures are
+ * captured as DOWN leaves; nothing is thrown to the caller.
+ *
+ * <p>In parallel mode every leaf indicator is started at once on the probe executor, so an
+ * evaluation takes as long as the slowest probe rather than the sum of all of them. Each
+ * component has its own budget and the whole evaluation has an overall budget; leaves that
+ * miss either are cancelled and reported UNKNOWN with {@code timedOut=true}. A coalesced leaf
+ * call may be shared with other evaluations, so it is abandoned rather than interrupted; each
+ * evaluation waits for it with its own deadline.
+ *
+ * <p>{@link AsyncHealthIndicator}s are not given a thread at all in parallel mode; their futures
+ * are awaited alongside the others.
+ *
+ * <p>Each leaf call (and each timeout) is recorded in a per-path {@link LatencyHistogram}; the
+ * leaf's details then carry {@code latencyP50Ms}, {@code latencyP90Ms}, {@code latencyP99Ms} and
+ * {@code latencyMaxMs} over the configured window.
+ *
+ * <p>With coalescing enabled, concurrent evaluations of the same tree, and concurrent calls of
+ * the same leaf indicator, share one execution (see {@link SingleFlight}).
+ */
+public class HealthEvaluator implements AutoCloseable {
+
+    private final boolean parallel;
+    private final Function<String, Duration> componentTimeout;
+    private final Duration timeout;
+    private final ExecutorService executor; // null when sequential
+    private final boolean ownsExecutor;
+    private final SingleFlight<TreeKey, HealthResult> trees; // null when not coalescing
+    private final SingleFlight<HealthIndicator, HealthResult> leaves;
+    private final Duration latencyWindow; // null when latency histograms are off
+    private final int latencySlots;
+    private final ConcurrentHashMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private volatile LeafResultListener[] listeners = new LeafResultListener[0];
+
+    private record TreeKey(String path, HealthContributor contributor) {}
+
+    public HealthEvaluator() {
+        this(false, component -> null, null, null);
+    }
+
+    /**
+     * @param coalescingWindow null disables coalescing; zero shares only in-flight evaluations
+     */
+    public HealthEvaluator(boolean parallel, Function<String, Duration> componentTimeout, Duration timeout,
+                           Duration coalescingWindow) {
+        this(parallel, componentTimeout, timeout, coalescingWindow, null, 0);
+    }
+
+    /**
+     * @param latencyWindow window of the per-component latency histograms; null disables them
+     * @param latencySlots  intervals the window is divided into (it slides by one interval at a time)
+     */
+    public HealthEvaluator(boolean parallel, Function<String, Duration> componentTimeout, Duration timeout,
+                           Duration coalescingWindow, Duration latencyWindow, int latencySlots) {
+        this(parallel, componentTimeout, timeout, coalescingWindow, latencyWindow, latencySlots, null);
+    }
+
+    /**
+     * @param probeExecutor executor of the parallel leaf probes, shared with the rest of the library
+     *                      and left running by {@link #close()}; null gives the evaluator its own
+     *                      virtual-thread executor
+     */
+    public HealthEvaluator(boolean parallel, Function<String, Duration> componentTimeout, Duration timeout,
+                           Duration coalescingWindow, Duration latencyWindow, int latencySlots,
+                           ExecutorService probeExecutor) {
+        this.parallel = parallel;
+        this.componentTimeout = componentTimeout;
+        this.timeout = timeout;
+        this.ownsExecutor = parallel && probeExecutor == null;
+        this.executor = !parallel ? null : probeExecutor != null ? probeExecutor : Executors.newVirtualThreadPerTaskExecutor();
+        this.trees = coalescingWindow != null ? new SingleFlight<>(coalescingWindow) : null;
+        this.leaves = coalescingWindow != null ? new SingleFlight<>(coalescingWindow) : null;
+        this.latencyWindow = latencyWindow;
+        this.latencySlots = latencySlots;
+    }
+
+    /** Evaluates a whole tree; direct children of a composite root are treated as components. */
+    public HealthResult evaluate(HealthContributor contributor) {
+        return evaluate(null, contributor);
+    }
+
+    /** Evaluates the subtree of one named top-level component. */
+    public HealthResult evaluate(String component, HealthContributor contributor) {
+        HealthContributor target = SinglePassHealthContributor.unwrap(contributor);
+        String path = component == null ? "" : component;
+        if (trees == null) {
+            return evaluateTree(component, path, target);
+        }
+        return trees.execute(new TreeKey(component, target), labelOf(path), () -> evaluateTree(component, path, target));
+    }
+
+    /**
+     * Evaluates only the node at {@code path} below {@code root} (e.g. {@code [external, httpbin]}),
+     * with the budgets, latency paths and coalescing it has in a whole-tree evaluation. Derived
+     * nodes such as the flat summary need their siblings, so for them the whole tree is evaluated.
+     *
+     * @return the node's result, or null if {@code root} has no such node
+     */
+    public HealthResult evaluate(HealthContributor root, List<String> path) {
+        if (path.isEmpty()) {
+            return evaluate(root);
+        }
+        HealthContributor node = SinglePassHealthContributor.unwrap(root);
+        for (String segment : path) {
+            node = node instanceof CompositeHealthContributor composite ? composite.getContributor(segment) : null;
+            if (node == null) {
+                return null;
+            }
+        }
+        if (node instanceof DerivedHealthIndicator) {
+            return evaluate(root).find(path);
+        }
+        String component = path.get(0);
+        String dotted = String.join(".", path);
+        HealthContributor target = node;
+        if (trees == null) {
+            return evaluateTree(component, dotted, target);
+        }
+        return trees.execute(new TreeKey(dotted, target), dotted, () -> evaluateTree(component, dotted, target));
+    }
+
+    /** Executed versus coalesced evaluations, per tree ({@code trees}) and per leaf path ({@code components}). */
+    public Map<String, Object> coalescingStats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        if (trees != null) {
+            out.put("trees", trees.stats());
+            out.put("components", leaves.stats());
+        }
+        return out;
+    }
+
+    private HealthResult evaluateTree(String component, String path, HealthContributor contributor) {
+        if (!parallel) {
+            return evaluateSequential(path, contributor);
+        }
+        long deadline = System.nanoTime() + nanosOf(timeout);
+        return await(submit(component, path, contributor), deadline);
+    }
+
+    private HealthResult evaluateSequential(String path, HealthContributor contributor) {
+        if (contributor instanceof CompositeHealthContributor composite) {
+            Map<String, HealthResult> children = new LinkedHashMap<>();
+            Map<String, DerivedHealthIndicator> derived = new LinkedHashMap<>();
+            for (NamedContributor<HealthContributor> child : composite) {
+                if (child.getContributor() instanceof DerivedHealthIndicator d) {
+                    derived.put(child.getName(), d);
+                    children.put(child.getName(), null); // keeps declaration order
+                } else {
+                    children.put(child.getName(), evaluateSequential(childPath(path, child.getName()), child.getContributor()));
+                }
+            }
+            return withDerived(children, derived, System.currentTimeMillis());
+        } else if (contributor instanceof HealthIndicator hi) {
+            return evaluateLeaf(path, hi);
+        }
+        return unknown();
+    }
+
+    private HealthResult evaluateLeaf(String path, HealthIndicator indicator) {
+        if (leaves == null) {
+            return timed(path, indicator, null);
+        }
+        return leaves.execute(indicator, labelOf(path), () -> timed(path, indicator, null));
+    }
+
+    /** {@code recorded}: claimed by whichever of the call and its timeout finishes first; null when nothing can time out. */
+    private HealthResult timed(String path, HealthIndicator indicator, AtomicBoolean recorded) {
+        long start = System.nanoTime();
+        HealthResult result = evaluateIndicator(indicator);
+        if (recorded != null && !recorded.compareAndSet(false, true)) {
+            return result; // already recorded as timed out; a late result is not a second sample
+        }
+        return withLatency(path, result, System.nanoTime() - start);
+    }
+
+    protected HealthResult evaluateIndicator(HealthIndicator indicator) {
+        Health h;
+        try {
+            h = indicator.health();
+        } catch (Exception e) {
+            h = Health.down()
+                    .withDetail("errorKind", e.getClass().getSimpleName())
+                    .withDetail("error", String.valueOf(e.getMessage()))
+                    .build();
+        }
+        if (h == null) {
+            h = Health.unknown().withDetail("error", "nullResult").build();
+        }
+        return HealthResult.leaf(h, System.currentTimeMillis());
+    }
+
+    /**
+     * Completes a composite whose derived children are still missing: they are computed from the
+     * already evaluated siblings instead of being probed.
+     */
+    public static HealthResult withDerived(Map<String, HealthResult> children,
+                                           Map<String, DerivedHealthIndicator> derived, long now) {
+        if (derived.isEmpty()) {
+            return HealthResult.composite(children, now);
+        }
+        Map<String, HealthResult> siblings = new LinkedHashMap<>(children);
+        siblings.keySet().removeAll(derived.keySet());
+        HealthResult base = HealthResult.composite(siblings, now);
+        derived.forEach((name, d) -> {
+            Health h;
+            try {
+                h = d.derive(base);
+            } catch (Exception e) {
+                h = Health.down()
+                        .withDetail("errorKind", e.getClass().getSimpleName())
+                        .withDetail("error", String.valueOf(e.getMessage()))
+                        .build();
+            }
+            children.put(name, HealthResult.leaf(h, now));
+        });
+        return HealthResult.composite(children, now);
+    }
+
+    /** Latency percentiles of one leaf path (dotted, as in the flat view), or null if never recorded. */
+    public LatencyHistogram.Percentiles latencyOf(String path) {
+        LatencyHistogram h = latencies.get(path);
+        return h == null ? null : h.percentiles();
+    }
+
+    /** Adds a listener for every subsequent leaf result (e.g. a metrics bridge). */
+    public synchronized void addListener(LeafResultListener listener) {
+        LeafResultListener[] next = Arrays.copyOf(listeners, listeners.length + 1);
+        next[listeners.length] = listener;
+        listeners = next;
+    }
+
+    /**
+     * Records a leaf result evaluated elsewhere (e.g. by the reactive evaluator) exactly as this
+     * evaluator records its own: listeners, latency histogram and percentile details.
+     */
+    public HealthResult recordLeaf(String path, HealthResult result, long elapsedNanos) {
+        return withLatency(path, result, elapsedNanos);
+    }
+
+    /**
+     * Records the call and adds the window's p50/p90/p99/max (milliseconds) to the leaf details;
+     * listeners see the result as the indicator reported it.
+     */
+    private HealthResult withLatency(String path, HealthResult result, long elapsedNanos) {
+        boolean replica = "replica".equals(result.getDetails().get("shared"));
+        if (replica) {
+            elapsedNanos = LeafResultListener.NOT_PROBED; // the store read, not the probe; kept out of timers
+        }
+        LeafResultListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            try {
+                current[i].onResult(labelOf(path), result, elapsedNanos);
+            } catch (RuntimeException ignore) {
+                // a listener must never change the outcome of an evaluation
+            }
+        }
+        if (latencyWindow == null || replica) {
+            return result;
+        }
+        LatencyHistogram histogram = latencies.computeIfAbsent(labelOf(path),
+                p -> new LatencyHistogram(latencyWindow, latencySlots));
+        histogram.record(elapsedNanos);
+        LatencyHistogram.Percentiles pct = histogram.percentiles();
+        Map<String, Object> details = new LinkedHashMap<>(result.getDetails());
+        details.put("latencyP50Ms", pct.p50Ms());
+        details.put("latencyP90Ms", pct.p90Ms());
+        details.put("latencyP99Ms", pct.p99Ms());
+        details.put("latencyMaxMs", pct.maxMs());
+        details.put("latencySamples", pct.count());
+        return HealthResult.leaf(result.getStatus(), details, result.getEvaluatedAt());
+    }
+
+    private static String labelOf(String path) {
+        return path.isEmpty() ? "custom" : path;
+    }
+
+    // ---- parallel mode ----
+
+    /** {@code recorded} makes sure a leaf is recorded once: as its result or as its timeout, whichever comes first. */
+    private record Submitted(String path, Future<HealthResult> future, long startedAt, long budgetNanos,
+                             AtomicBoolean recorded) {}
+
+    private record Derived(DerivedHealthIndicator indicator) {}
+
+    /** Starts every leaf and returns a mirror of the tree holding futures (leaves) and maps (composites). */
+    private Object submit(String component, String path, HealthContributor contributor) {
+        if (contributor instanceof CompositeHealthContributor composite) {
+            Map<String, Object> children = new LinkedHashMap<>();
+            for (NamedContributor<HealthContributor> child : composite) {
+                String owner = component != null ? component : child.getName();
+                children.put(child.getName(), child.getContributor() instanceof DerivedHealthIndicator d
+                        ? new Derived(d)
+                        : submit(owner, childPath(path, child.getName()), child.getContributor()));
+            }
+            return children;
+        } else if (contributor instanceof AsyncHealthIndicator async) {
+            long startedAt = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return new Submitted(path, evaluateAsync(path, async, startedAt, recorded), startedAt,
+                    nanosOf(componentTimeout.apply(component)), recorded);
+        } else if (contributor instanceof HealthIndicator hi) {
+            AtomicBoolean recorded = new AtomicBoolean();
+            long startedAt = System.nanoTime();
+            long budget = nanosOf(componentTimeout.apply(component));
+            if (leaves == null) {
+                Future<HealthResult> f = executor.submit(() -> timed(path, hi, recorded));
+                return new Submitted(path, f, startedAt, budget, recorded);
+            }
+            // the probe is a task of its own: a caller that times out stops waiting without
+            // interrupting a call that other evaluations still wait for
+            SingleFlight.Ticket<HealthResult> ticket = leaves.submit(hi, labelOf(path), () -> timed(path, hi, recorded), executor);
+            // only the caller that started the call records it, as its result or as its timeout
+            return new Submitted(path, ticket.result(), startedAt, budget, ticket.started() ? recorded : new AtomicBoolean(true));
+        }
+        return unknown();
+    }
+
+    private Future<HealthResult> evaluateAsync(String path, AsyncHealthIndicator indicator, long startedAt,
+                                               AtomicBoolean recorded) {
+        CompletableFuture<Health> started;
+        try {
+            started = indicator.healthAsync();
+        } catch (Exception e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        return started.handle((h, error) -> {
+            HealthResult result;
+            if (error != null) {
+                Throwable cause = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+                result = HealthResult.leaf(Status.DOWN, Map.of(
+                        "errorKind", cause.getClass().getSimpleName(),
+                        "error", String.valueOf(cause.getMessage())), System.currentTimeMillis());
+            } else {
+                result = h == null
+                        ? HealthResult.leaf(Status.UNKNOWN, Map.of("error", "nullResult"), System.currentTimeMillis())
+                        : HealthResult.leaf(h, System.currentTimeMillis());
+            }
+            // completing right at the deadline, the result may lose to the timeout
+            return recorded.compareAndSet(false, true) ? withLatency(path, result, System.nanoTime() - startedAt) : result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private HealthResult await(Object node, long deadline) {
+        if (node instanceof HealthResult r) {
+            return r;
+        }
+        if (node instanceof Submitted s) {
+            long limit = Math.min(s.startedAt() + s.budgetNanos(), deadline);
+            try {
+                return s.future().get(Math.max(0, limit - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                s.future().cancel(true);
+                return timedOut(s, System.nanoTime() - s.startedAt());
+            } catch (InterruptedException e) {
+                s.future().cancel(true);
+                Thread.currentThread().interrupt();
+                return timedOut(s, System.nanoTime() - s.startedAt());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                return HealthResult.leaf(Status.DOWN, Map.of(
+                        "errorKind", cause.getClass().getSimpleName(),
+                        "error", String.valueOf(cause.getMessage())), System.currentTimeMillis());
+            }
+        }
+        Map<String, HealthResult> children = new LinkedHashMap<>();
+        Map<String, DerivedHealthIndicator> derived = new LinkedHashMap<>();
+        ((Map<String, Object>) node).forEach((name, child) -> {
+            if (child instanceof Derived d) {
+                derived.put(name, d.indicator());
+                children.put(name, null);
+            } else {
+                children.put(name, await(child, deadline));
+            }
+        });
+        return withDerived(children, derived, System.currentTimeMillis());
+    }
+
+    /**
+     * A timeout counts as a sample of its elapsed time, so the tail shows it too, unless the call
+     * itself was recorded first. The cancelled call is not recorded again when it returns.
+     */
+    private HealthResult timedOut(Submitted s, long elapsedNanos) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("timedOut", true);
+        details.put("latencyMs", elapsedNanos / 1_000_000);
+        HealthResult result = HealthResult.leaf(Status.UNKNOWN, details, System.currentTimeMillis());
+        return s.recorded().compareAndSet(false, true) ? withLatency(s.path(), result, elapsedNanos) : result;
+    }
+
+    private HealthResult unknown() {
+        return HealthResult.leaf(Status.UNKNOWN, Map.of(), System.currentTimeMillis());
+    }
+
+    private static String childPath(String path, String name) {
+        return path.isEmpty() ? name : path + "." + name;
+    }
+
+    private long nanosOf(Duration d) {
+        return (d == null || d.isNegative() || d.isZero()) ? Long.MAX_VALUE / 4 : d.toNanos();
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+}
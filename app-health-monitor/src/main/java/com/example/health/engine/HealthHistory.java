@@ -0,0 +1,182 @@
+package com.example.health.engine;
+
+import org.springframework.boot.actuate.health.Status;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The last {@code capacity} leaf results of every component: time, status, latency and error
+ * kind, so flapping and short outages between two scrapes stay visible. Register it with
+ * {@link HealthEvaluator#addListener(LeafResultListener)}.
+ *
+ * <p>Each component has a ring of primitive arrays and a sequence counter. Recording claims a
+ * slot with one increment, writes the slot and stamps it with its sequence number; it takes no
+ * lock and allocates nothing once the component and its error kinds have been seen. Readers copy a
+ * slot and keep it only if the stamp was the same before and after, so a slot overwritten during
+ * the read is skipped rather than reported torn.
+ *
+ * <p>Statuses other than the four standard ones are recorded as UNKNOWN.
+ */
+public final class HealthHistory implements LeafResultListener {
+
+    /** One recorded result. {@code errorKind} is null for results without one. */
+    public record Entry(long sequence, long at, String status, double latencyMs, String errorKind) {}
+
+    /** The retained entries of one component, oldest first, and its transitions since startup. */
+    public record ComponentHistory(long recorded, Map<String, Long> transitions, List<Entry> entries) {}
+
+    private static final Status[] STATUSES = {Status.UP, Status.DOWN, Status.OUT_OF_SERVICE, Status.UNKNOWN};
+    private static final int UNKNOWN = 3;
+    private static final int NO_STATUS = -1;
+    private static final int NO_KIND = -1;
+    private static final int MAX_KINDS = 256; // further kinds are recorded as "other"
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, Ring> rings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> kindIds = new ConcurrentHashMap<>();
+    private volatile String[] kinds = new String[0];
+
+    /** @param capacity entries kept per component; rounded up to a power of two */
+    public HealthHistory(int capacity) {
+        int n = Math.max(2, Math.min(1 << 16, capacity));
+        this.capacity = Integer.highestOneBit(n - 1) << 1;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void onResult(String path, HealthResult result, long elapsedNanos) {
+        Ring ring = rings.get(path);
+        if (ring == null) {
+            ring = rings.computeIfAbsent(path, p -> new Ring(capacity));
+        }
+        ring.record(result.getEvaluatedAt(), statusIndex(result.getStatus()), Math.max(0, elapsedNanos), kindId(result));
+    }
+
+    /** Up to {@code limit} most recent entries of every component recorded so far, by component name. */
+    public Map<String, ComponentHistory> snapshot(int limit) {
+        Map<String, ComponentHistory> out = new TreeMap<>();
+        rings.forEach((path, ring) -> out.put(path, ring.read(Math.max(0, Math.min(limit, capacity)), kinds)));
+        return out;
+    }
+
+    private int kindId(HealthResult result) {
+        Map<String, Object> details = result.getDetails();
+        String kind = details.get("errorKind") instanceof String s ? s
+                : Boolean.TRUE.equals(details.get("timedOut")) ? "timeout" : null;
+        if (kind == null) {
+            return NO_KIND;
+        }
+        Integer id = kindIds.get(kind);
+        return id != null ? id : register(kind);
+    }
+
+    /** The first sighting of an error kind; rare, so a lock is fine here. */
+    private synchronized int register(String kind) {
+        Integer id = kindIds.get(kind);
+        if (id != null) {
+            return id;
+        }
+        String[] current = kinds;
+        String name = current.length < MAX_KINDS - 1 ? kind : "other";
+        id = kindIds.get(name);
+        if (id == null) {
+            id = current.length;
+            String[] next = Arrays.copyOf(current, id + 1);
+            next[id] = name;
+            kinds = next; // published before the id, so a reader always finds the name
+            kindIds.put(name, id);
+        }
+        kindIds.put(kind, id);
+        return id;
+    }
+
+    private static int statusIndex(Status status) {
+        for (int i = 0; i < STATUSES.length; i++) {
+            if (STATUSES[i].equals(status)) return i;
+        }
+        return UNKNOWN;
+    }
+
+    private static final class Ring {
+        private final int mask;
+        private final long[] at;
+        private final long[] elapsedNanos;
+        private final byte[] status;
+        private final short[] kind;
+        private final AtomicLongArray stamps; // sequence of the entry a slot holds; -1 while written
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicInteger lastStatus = new AtomicInteger(NO_STATUS);
+        private final AtomicLongArray transitions = new AtomicLongArray(STATUSES.length * STATUSES.length);
+
+        Ring(int capacity) {
+            this.mask = capacity - 1;
+            this.at = new long[capacity];
+            this.elapsedNanos = new long[capacity];
+            this.status = new byte[capacity];
+            this.kind = new short[capacity];
+            this.stamps = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                stamps.set(i, -1);
+            }
+        }
+
+        void record(long atMs, int statusIndex, long nanos, int kindId) {
+            long seq = sequence.getAndIncrement();
+            int slot = (int) (seq & mask);
+            stamps.setOpaque(slot, -1);
+            VarHandle.storeStoreFence(); // readers see the slot invalidated before it changes
+            at[slot] = atMs;
+            elapsedNanos[slot] = nanos;
+            status[slot] = (byte) statusIndex;
+            kind[slot] = (short) kindId;
+            stamps.setRelease(slot, seq);
+            int previous = lastStatus.getAndSet(statusIndex);
+            if (previous != NO_STATUS && previous != statusIndex) {
+                transitions.incrementAndGet(previous * STATUSES.length + statusIndex);
+            }
+        }
+
+        ComponentHistory read(int limit, String[] kindNames) {
+            long end = sequence.get();
+            long start = Math.max(0, end - limit);
+            List<Entry> entries = new ArrayList<>((int) (end - start));
+            for (long seq = start; seq < end; seq++) {
+                int slot = (int) (seq & mask);
+                if (stamps.getAcquire(slot) != seq) continue; // still being written, or already overwritten
+                long atMs = at[slot];
+                long nanos = elapsedNanos[slot];
+                int s = status[slot];
+                int k = kind[slot];
+                VarHandle.loadLoadFence();
+                if (stamps.get(slot) != seq) continue;
+                entries.add(new Entry(seq, atMs, STATUSES[s].getCode(), nanos / 1_000_000.0,
+                        k == NO_KIND || k >= kindNames.length ? null : kindNames[k]));
+            }
+            Map<String, Long> counts = new LinkedHashMap<>();
+            long total = 0;
+            for (int i = 0; i < transitions.length(); i++) {
+                long c = transitions.get(i);
+                if (c == 0) continue;
+                counts.put(STATUSES[i / STATUSES.length].getCode() + "->" + STATUSES[i % STATUSES.length].getCode(), c);
+                total += c;
+            }
+            Map<String, Long> withTotal = new LinkedHashMap<>();
+            withTotal.put("total", total);
+            withTotal.putAll(counts);
+            return new ComponentHistory(end, withTotal, entries);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.health.engine;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable result of evaluating a health contributor tree. Leaves carry the indicator's
+ * status and details; composites carry their children and the worst child status.
+ */
+public final class HealthResult {
+    private final Status status;
+    private final Map<String, Object> details;
+    private final Map<String, HealthResult> components;
+    private final long evaluatedAt; // epoch millis
+
+    private HealthResult(Status status, Map<String, Object> details, Map<String, HealthResult> components, long evaluatedAt) {
+        this.status = status;
+        this.details = details;
+        this.components = components;
+        this.evaluatedAt = evaluatedAt;
+    }
+
+    public static HealthResult leaf(Health health, long evaluatedAt) {
+        return leaf(health.getStatus(), health.getDetails(), evaluatedAt);
+    }
+
+    public static HealthResult leaf(Status status, Map<String, Object> details, long evaluatedAt) {
+        Map<String, Object> copy = (details == null || details.isEmpty())
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new LinkedHashMap<>(details));
+        return new HealthResult(status, copy, null, evaluatedAt);
+    }
+
+    public static HealthResult composite(Map<String, HealthResult> children, long evaluatedAt) {
+        Status worst = Status.UP;
+        for (HealthResult child : children.values()) {
+            worst = worseOf(worst, child.getStatus());
+        }
+        return new HealthResult(worst, Collections.emptyMap(),
+                Collections.unmodifiableMap(new LinkedHashMap<>(children)), evaluatedAt);
+    }
+
+    public Status getStatus() { return status; }
+    public Map<String, Object> getDetails() { return details; }
+    public Map<String, HealthResult> getComponents() { return components == null ? Collections.emptyMap() : components; }
+    public long getEvaluatedAt() { return evaluatedAt; }
+    public boolean isComposite() { return components != null; }
+
+    /** Copy of this composite with one direct child replaced (or appended), status recomputed. */
+    public HealthResult withComponent(String name, HealthResult child, long evaluatedAt) {
+        Map<String, HealthResult> next = new LinkedHashMap<>(getComponents());
+        next.put(name, child);
+        return composite(next, evaluatedAt);
+    }
+
+    /** Node at the given path below this one, or null if there is none. */
+    public HealthResult find(List<String> path) {
+        HealthResult node = this;
+        for (String segment : path) {
+            node = node.getComponents().get(segment);
+            if (node == null) return null;
+        }
+        return node;
+    }
+
+    /** Visits every leaf in tree order with its dotted path relative to this node. */
+    public void forEachLeaf(BiConsumer<String, HealthResult> visitor) {
+        forEachLeaf("", visitor);
+    }
+
+    private void forEachLeaf(String prefix, BiConsumer<String, HealthResult> visitor) {
+        if (!isComposite()) {
+            visitor.accept(prefix, this);
+            return;
+        }
+        for (Map.Entry<String, HealthResult> e : components.entrySet()) {
+            String path = prefix.isEmpty() ? e.getKey() : prefix + "." + e.getKey();
+            e.getValue().forEachLeaf(path, visitor);
+        }
+    }
+
+    public static Status worseOf(Status a, Status b) {
+        // Simple severity ordering: DOWN > OUT_OF_SERVICE > UNKNOWN > UP
+        return rank(b) > rank(a) ? b : a;
+    }
+
+    private static int rank(Status s) {
+        if (Status.DOWN.equals(s)) return 4;
+        if (Status.OUT_OF_SERVICE.equals(s)) return 3;
+        if (Status.UNKNOWN.equals(s)) return 2;
+        return 1; // UP and any other
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.health.engine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram over a sliding time window, with nanosecond input. Values fall into
+ * log-linear buckets (HDR style: 16 sub-buckets per power of two, so any reported percentile is
+ * within about 6% of the true value). The window is a ring of {@code slots} intervals; an interval
+ * is cleared when it comes round again.
+ *
+ * <p>{@link #record(long)} allocates nothing: it is two atomic increments and a max update.
+ * {@link #percentiles()} scans the histogram at most once per interval and hands out that result
+ * until the window advances, so reading it on every call does not put a scan on every probe.
+ */
+public final class LatencyHistogram {
+
+    public record Percentiles(long count, double p50Ms, double p90Ms, double p99Ms, double maxMs) {}
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40; // 2^40 ns is about 1100 s; values of 2^41 ns and more share the last bucket
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+    private final long slotNanos;
+    private final AtomicLongArray[] counts;
+    private final AtomicLong[] epochs; // interval number each slot currently holds
+    private final AtomicLong[] maxima;
+    private volatile Cached cached; // percentiles as of the interval they were computed in
+
+    private record Cached(long epoch, Percentiles percentiles) {}
+
+    public LatencyHistogram(Duration window, int slots) {
+        int n = Math.max(1, Math.min(64, slots)); // percentiles() tracks live slots in one long
+        long windowNanos = (window == null || window.isZero() || window.isNegative())
+                ? Duration.ofMinutes(1).toNanos() : window.toNanos();
+        this.slotNanos = Math.max(1, windowNanos / n);
+        this.counts = new AtomicLongArray[n];
+        this.epochs = new AtomicLong[n];
+        this.maxima = new AtomicLong[n];
+        for (int i = 0; i < n; i++) {
+            counts[i] = new AtomicLongArray(BUCKETS);
+            epochs[i] = new AtomicLong(-1);
+            maxima[i] = new AtomicLong();
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        long epoch = System.nanoTime() / slotNanos;
+        int slot = (int) Math.floorMod(epoch, (long) counts.length);
+        long held = epochs[slot].get();
+        if (held != epoch && epochs[slot].compareAndSet(held, epoch)) {
+            // first writer of a new interval clears what the slot held one window ago
+            AtomicLongArray c = counts[slot];
+            for (int i = 0; i < BUCKETS; i++) {
+                c.set(i, 0);
+            }
+            maxima[slot].set(0);
+        }
+        counts[slot].incrementAndGet(bucketOf(value));
+        maxima[slot].accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Percentiles over the intervals that are still inside the window, as of the first call in the
+     * current interval; later calls in the same interval return that result without a scan.
+     */
+    public Percentiles percentiles() {
+        long epoch = System.nanoTime() / slotNanos;
+        Cached c = cached;
+        if (c != null && c.epoch() == epoch) {
+            return c.percentiles();
+        }
+        Percentiles p = scan(epoch);
+        cached = new Cached(epoch, p);
+        return p;
+    }
+
+    /**
+     * Allocates only the result: one pass counts the live intervals, a second walks the buckets
+     * across them and picks all three ranks on the way, so nothing is merged into a temporary array.
+     */
+    private Percentiles scan(long epoch) {
+        int n = counts.length;
+        long live = 0; // bit s set when slot s is inside the window
+        long total = 0;
+        long max = 0;
+        for (int s = 0; s < n; s++) {
+            if (epoch - epochs[s].get() >= n) continue;
+            live |= 1L << s;
+            AtomicLongArray c = counts[s];
+            for (int i = 0; i < BUCKETS; i++) {
+                total += c.get(i);
+            }
+            max = Math.max(max, maxima[s].get());
+        }
+        if (total == 0) {
+            return new Percentiles(0, 0, 0, 0, 0);
+        }
+        long rank50 = rank(0.50, total);
+        long rank90 = rank(0.90, total);
+        long rank99 = rank(0.99, total);
+        long p50 = max;
+        long p90 = max;
+        long p99 = max; // kept when concurrent records leave the second pass short of a rank
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && seen < rank99; i++) {
+            long before = seen;
+            for (int s = 0; s < n; s++) {
+                if ((live & (1L << s)) != 0) seen += counts[s].get(i);
+            }
+            if (seen == before) continue;
+            long value = Math.min(highestValueIn(i), max);
+            if (before < rank50 && seen >= rank50) p50 = value;
+            if (before < rank90 && seen >= rank90) p90 = value;
+            if (seen >= rank99) p99 = value;
+        }
+        return new Percentiles(total, toMs(p50), toMs(p90), toMs(p99), toMs(max));
+    }
+
+    private static long rank(double quantile, long total) {
+        return Math.max(1, (long) Math.ceil(quantile * total));
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+        int sub = bucket % SUB_COUNT;
+        long lowest = (1L << exponent) | ((long) sub << (exponent - SUB_BITS));
+        return lowest + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    private static double toMs(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0; // microsecond precision
+    }
+}
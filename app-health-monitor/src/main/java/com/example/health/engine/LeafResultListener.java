@@ -0,0 +1,22 @@
+package com.example.health.engine;
+
+/**
+ * Notified once per leaf indicator call made by a {@link HealthEvaluator}, coalesced calls
+ * included only once. A call that times out is reported once, as the timeout; its late result is
+ * not reported. Called on the evaluating thread; implementations must be fast and must not throw.
+ *
+ * @see HealthEvaluator#addListener(LeafResultListener)
+ */
+@FunctionalInterface
+public interface LeafResultListener {
+
+    /** {@code elapsedNanos} of a result another replica probed ({@code shared=replica}); there is no local latency. */
+    long NOT_PROBED = -1L;
+
+    /**
+     * @param path         dotted path of the leaf, as in the flat view
+     * @param result       the leaf's result (details include {@code timedOut=true} for timeouts)
+     * @param elapsedNanos time from start of the call to its result or timeout, or {@link #NOT_PROBED}
+     */
+    void onResult(String path, HealthResult result, long elapsedNanos);
+}
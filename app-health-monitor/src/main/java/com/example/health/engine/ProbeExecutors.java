@@ -0,0 +1,41 @@
+package com.example.health.engine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor probes run on. Virtual threads cost nothing while a probe waits, so a hung
+ * dependency holds no platform thread; where virtual threads are not wanted, a fixed number of
+ * daemon platform threads is used and further probes queue for them.
+ *
+ * <p>Probes are submitted as {@link java.util.concurrent.Future}s and cancelled with
+ * {@code cancel(true)} when they miss their deadline, which interrupts the probing thread.
+ */
+public final class ProbeExecutors {
+    private ProbeExecutors() {}
+
+    public static ExecutorService newExecutor(boolean virtualThreads, int maxThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("app-health-probe-", 1).factory());
+        }
+        int threads = Math.max(1, maxThreads);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "app-health-probe-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.health.engine;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution per key: callers that arrive while a call for the same key is running
+ * attach to it and receive its result instead of starting their own. A result that completed less
+ * than {@code window} ago is handed out as well. Executed and coalesced calls are counted per label.
+ *
+ * <p>{@link #execute} runs the call on the first caller's thread and blocks the others until it
+ * returns. {@link #submit} runs it as a task of its own and gives every caller a separate future,
+ * so each caller waits with its own deadline and can be interrupted, and a caller that gives up
+ * cannot cancel the call for the others.
+ */
+public final class SingleFlight<K, V> {
+
+    public record Stats(long executed, long coalesced) {}
+
+    /** A caller's view of a flight: its own future of the result, and whether this caller started the call. */
+    public record Ticket<V>(CompletableFuture<V> result, boolean started) {}
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        volatile long completedAt;
+    }
+
+    private static final class Counters {
+        final LongAdder executed = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+    }
+
+    private final long windowNanos;
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public SingleFlight(Duration window) {
+        this.windowNanos = window == null ? 0 : Math.max(0, window.toNanos());
+    }
+
+    public V execute(K key, String label, Supplier<V> work) {
+        Counters c = counters.computeIfAbsent(label, l -> new Counters());
+        while (true) {
+            Flight<V> current = flights.get(key);
+            if (current != null && (!current.future.isDone() || System.nanoTime() - current.completedAt < windowNanos)) {
+                c.coalesced.increment();
+                return join(current);
+            }
+            Flight<V> mine = new Flight<>();
+            boolean won = current == null ? flights.putIfAbsent(key, mine) == null : flights.replace(key, current, mine);
+            if (!won) {
+                continue;
+            }
+            c.executed.increment();
+            try {
+                V value = work.get();
+                mine.completedAt = System.nanoTime();
+                mine.future.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                flights.remove(key, mine);
+                mine.future.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /** Attaches to the running call for {@code key}, or starts one on {@code executor}; never blocks. */
+    public Ticket<V> submit(K key, String label, Supplier<V> work, Executor executor) {
+        Counters c = counters.computeIfAbsent(label, l -> new Counters());
+        while (true) {
+            Flight<V> current = flights.get(key);
+            if (current != null && (!current.future.isDone() || System.nanoTime() - current.completedAt < windowNanos)) {
+                c.coalesced.increment();
+                return new Ticket<>(current.future.copy(), false);
+            }
+            Flight<V> mine = new Flight<>();
+            boolean won = current == null ? flights.putIfAbsent(key, mine) == null : flights.replace(key, current, mine);
+            if (!won) {
+                continue;
+            }
+            c.executed.increment();
+            try {
+                executor.execute(() -> {
+                    try {
+                        V value = work.get();
+                        mine.completedAt = System.nanoTime();
+                        mine.future.complete(value);
+                    } catch (Throwable e) {
+                        flights.remove(key, mine);
+                        mine.future.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                flights.remove(key, mine);
+                mine.future.completeExceptionally(e);
+            }
+            return new Ticket<>(mine.future.copy(), true);
+        }
+    }
+
+    /** Counters per label, sorted by label. */
+    public Map<String, Stats> stats() {
+        Map<String, Stats> out = new LinkedHashMap<>();
+        new TreeMap<>(counters).forEach((label, c) -> out.put(label, new Stats(c.executed.sum(), c.coalesced.sum())));
+        return Collections.unmodifiableMap(out);
+    }
+
+    private V join(Flight<V> flight) {
+        try {
+            return flight.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.health.engine;
+
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.NamedContributor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Composite that exposes the same structure as {@code source}, but whose leaves are projections
+ * of one evaluation pass. Actuator calls each child of {@code /actuator/health/custom} separately;
+ * here the first call evaluates the whole tree once and the remaining children (including the flat
+ * summary) read from that pass, as long as it completed within {@code reuseWindow}.
+ *
+ * <p>Library code that evaluates the tree directly goes through {@link #unwrap} and never
+ * touches the projected views.
+ */
+public class SinglePassHealthContributor implements CompositeHealthContributor {
+
+    private final HealthContributor source;
+    private final HealthEvaluator evaluator;
+    private final SingleFlight<String, HealthResult> passes;
+    private final Map<String, HealthContributor> views = new LinkedHashMap<>();
+
+    public SinglePassHealthContributor(HealthContributor source, HealthEvaluator evaluator, Duration reuseWindow) {
+        this.source = source;
+        this.evaluator = evaluator;
+        this.passes = new SingleFlight<>(reuseWindow);
+        if (source instanceof CompositeHealthContributor composite) {
+            for (NamedContributor<HealthContributor> child : composite) {
+                views.put(child.getName(), viewOf(List.of(child.getName()), child.getContributor()));
+            }
+        }
+    }
+
+    /** The underlying tree of real indicators. */
+    public HealthContributor getSource() {
+        return source;
+    }
+
+    public static HealthContributor unwrap(HealthContributor contributor) {
+        return contributor instanceof SinglePassHealthContributor sp ? sp.getSource() : contributor;
+    }
+
+    /** Evaluates the whole tree once; each indicator is called exactly once. */
+    public HealthResult evaluate() {
+        return evaluator.evaluate(source);
+    }
+
+    @Override
+    public HealthContributor getContributor(String name) {
+        return views.get(name);
+    }
+
+    @Override
+    public Iterator<NamedContributor<HealthContributor>> iterator() {
+        List<NamedContributor<HealthContributor>> named = new ArrayList<>(views.size());
+        views.forEach((name, view) -> named.add(NamedContributor.of(name, view)));
+        return named.iterator();
+    }
+
+    HealthResult pass() {
+        return passes.execute("custom", "custom", this::evaluate);
+    }
+
+    private HealthContributor viewOf(List<String> path, HealthContributor contributor) {
+        if (contributor instanceof CompositeHealthContributor composite) {
+            Map<String, HealthContributor> children = new LinkedHashMap<>();
+            for (NamedContributor<HealthContributor> child : composite) {
+                List<String> childPath = new ArrayList<>(path);
+                childPath.add(child.getName());
+                children.put(child.getName(), viewOf(List.copyOf(childPath), child.getContributor()));
+            }
+            return CompositeHealthContributor.fromMap(children);
+        }
+        return (HealthIndicator) () -> toHealth(pass().find(path));
+    }
+
+    private static Health toHealth(HealthResult node) {
+        if (node == null) {
+            return Health.unknown().build();
+        }
+        return Health.status(node.getStatus()).withDetails(node.getDetails()).build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.health.group;
+
+import com.example.health.engine.HealthResult;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Liveness: is this process able to make progress at all? Only in-process state is consulted,
+ * the application's {@link LivenessState} and the configured member indicators, which must not
+ * do I/O. The {@code custom} dependency tree is never touched, so a slow or failing dependency
+ * cannot get a healthy pod restarted.
+ */
+public class LivenessGroup {
+
+    public static final String STATE = "livenessState";
+
+    private final ApplicationAvailability availability;
+    private final Map<String, HealthIndicator> members;
+
+    /** {@code availability} may be null; members are called in order on the caller's thread. */
+    public LivenessGroup(ApplicationAvailability availability, Map<String, HealthIndicator> members) {
+        this.availability = availability;
+        this.members = new LinkedHashMap<>(members);
+    }
+
+    public HealthResult evaluate() {
+        long now = System.currentTimeMillis();
+        Map<String, HealthResult> children = new LinkedHashMap<>();
+        if (availability != null) {
+            LivenessState state = availability.getLivenessState();
+            children.put(STATE, HealthResult.leaf(state == LivenessState.CORRECT ? Status.UP : Status.DOWN,
+                    Map.of("state", String.valueOf(state)), now));
+        }
+        members.forEach((name, indicator) -> children.put(name, HealthResult.leaf(call(indicator), now)));
+        return HealthResult.composite(children, now);
+    }
+
+    private static Health call(HealthIndicator indicator) {
+        try {
+            Health h = indicator.health();
+            return h != null ? h : Health.unknown().withDetail("error", "nullResult").build();
+        } catch (Exception e) {
+            return Health.down()
+                    .withDetail("errorKind", e.getClass().getSimpleName())
+                    .withDetail("error", String.valueOf(e.getMessage()))
+                    .build();
+        }
+    }
+}
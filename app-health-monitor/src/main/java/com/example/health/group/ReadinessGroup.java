@@ -0,0 +1,184 @@
+package com.example.health.group;
+
+import com.example.health.engine.DerivedHealthIndicator;
+import com.example.health.engine.HealthEvaluator;
+import com.example.health.engine.HealthResult;
+import com.example.health.engine.SinglePassHealthContributor;
+import com.example.health.snapshot.HealthSnapshotEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.NamedContributor;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Readiness: should this instance receive traffic? Answered from the most recent results of the
+ * member components of the {@code custom} tree, never by probing on the caller's thread.
+ *
+ * <p>With the snapshot engine the members are read from the current snapshot. Without it the
+ * group keeps the last result of each member; a result older than {@code maxAge} (or missing) is
+ * refreshed in the background, one refresh per member at a time, and the cached result is served
+ * meanwhile. Refreshes run on the probe executor; one that exceeds its component's timeout is
+ * cancelled, so the next call can start another. A member with no result yet is UNKNOWN with
+ * {@code readiness=pending}.
+ */
+public class ReadinessGroup {
+    private static final Logger log = LoggerFactory.getLogger(ReadinessGroup.class);
+
+    public static final String STATE = "readinessState";
+
+    private final HealthContributor custom;
+    private final HealthSnapshotEngine snapshots;
+    private final HealthEvaluator evaluator;
+    private final ApplicationAvailability availability;
+    private final ExecutorService executor;
+    private final Function<String, Duration> componentTimeout;
+    private final long maxAgeMs;
+    private final Map<String, List<String>> members = new LinkedHashMap<>(); // name -> path in custom
+    private final ConcurrentHashMap<String, HealthResult> cached = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Object, HealthResult> constants = new ConcurrentHashMap<>(); // state and pending leaves
+    private final AtomicReference<HealthResult> last = new AtomicReference<>();
+
+    /**
+     * @param members   dotted paths in {@code custom} (e.g. {@code db}, {@code external.httpbin});
+     *                  empty means every probed top-level component
+     * @param snapshots may be null; then results are cached here
+     * @param executor  runs refreshes; owned by the caller
+     * @param componentTimeout bound of a refresh, by top-level component name
+     */
+    public ReadinessGroup(HealthContributor custom, List<String> members, HealthSnapshotEngine snapshots,
+                          HealthEvaluator evaluator, ApplicationAvailability availability, Duration maxAge,
+                          ExecutorService executor, Function<String, Duration> componentTimeout) {
+        this.custom = custom;
+        this.snapshots = snapshots;
+        this.evaluator = evaluator;
+        this.availability = availability;
+        this.executor = executor;
+        this.componentTimeout = componentTimeout;
+        this.maxAgeMs = maxAge == null ? 30_000 : Math.max(1, maxAge.toMillis());
+        if (members == null || members.isEmpty()) {
+            if (SinglePassHealthContributor.unwrap(custom) instanceof CompositeHealthContributor composite) {
+                for (NamedContributor<HealthContributor> child : composite) {
+                    if (!(child.getContributor() instanceof DerivedHealthIndicator)) {
+                        this.members.put(child.getName(), List.of(child.getName()));
+                    }
+                }
+            }
+        } else {
+            for (String member : members) {
+                if (member != null && !member.isBlank()) {
+                    this.members.put(member.trim(), List.of(member.trim().split("\\.")));
+                }
+            }
+        }
+    }
+
+    public HealthResult evaluate() {
+        long now = System.currentTimeMillis();
+        Map<String, HealthResult> children = new LinkedHashMap<>();
+        if (availability != null) {
+            children.put(STATE, stateLeaf(availability.getReadinessState()));
+        }
+        HealthResult snapshotRoot = snapshots != null ? snapshots.current().getRoot() : null;
+        members.forEach((name, path) -> {
+            HealthResult result = snapshotRoot != null ? snapshotRoot.find(path) : cachedOrRefresh(name, path, now);
+            children.put(name, result != null ? result : pending(name));
+        });
+        return compose(children, now);
+    }
+
+    private HealthResult cachedOrRefresh(String name, List<String> path, long now) {
+        HealthResult result = cached.get(name);
+        if ((result == null || now - result.getEvaluatedAt() > maxAgeMs) && refreshing.add(name)) {
+            refresh(name, path);
+        }
+        return result;
+    }
+
+    private void refresh(String name, List<String> path) {
+        CompletableFuture<HealthResult> done = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    done.complete(evaluator.evaluate(custom, path));
+                } catch (Throwable t) {
+                    done.completeExceptionally(t);
+                }
+            });
+        } catch (RuntimeException e) { // executor shut down
+            refreshing.remove(name);
+            return;
+        }
+        Duration timeout = componentTimeout != null ? componentTimeout.apply(path.get(0)) : null;
+        if (timeout != null && timeout.isPositive()) {
+            done.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        done.whenComplete((result, t) -> {
+            try {
+                if (t == null) {
+                    if (result != null) cached.put(name, result);
+                    return;
+                }
+                if (t instanceof TimeoutException) {
+                    task.cancel(true);
+                }
+                log.atWarn()
+                        .addKeyValue("event", "app_health_readiness_refresh_failed")
+                        .addKeyValue("member", name)
+                        .addKeyValue("errorKind", t.getClass().getSimpleName())
+                        .log("app health readiness refresh failed");
+            } finally {
+                refreshing.remove(name);
+            }
+        });
+    }
+
+    private HealthResult stateLeaf(ReadinessState state) {
+        return constants.computeIfAbsent(state, s -> HealthResult.leaf(
+                state == ReadinessState.ACCEPTING_TRAFFIC ? Status.UP : Status.OUT_OF_SERVICE,
+                Map.of("state", String.valueOf(state)), System.currentTimeMillis()));
+    }
+
+    private HealthResult pending(String name) {
+        return constants.computeIfAbsent("pending:" + name, k ->
+                HealthResult.leaf(Status.UNKNOWN, Map.of("readiness", "pending"), System.currentTimeMillis()));
+    }
+
+    /** The previous root when every child is the same instance, so its encoded body is reused. */
+    private HealthResult compose(Map<String, HealthResult> children, long now) {
+        HealthResult prev = last.get();
+        if (prev != null && sameChildren(prev.getComponents(), children)) {
+            return prev;
+        }
+        HealthResult next = HealthResult.composite(children, now);
+        last.set(next);
+        return next;
+    }
+
+    private static boolean sameChildren(Map<String, HealthResult> a, Map<String, HealthResult> b) {
+        if (a.size() != b.size()) return false;
+        for (Map.Entry<String, HealthResult> e : b.entrySet()) {
+            if (a.get(e.getKey()) != e.getValue()) return false;
+        }
+        return true;
+    }
+}
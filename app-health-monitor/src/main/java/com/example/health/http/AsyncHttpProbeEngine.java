@@ -0,0 +1,106 @@
+package com.example.health.http;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking counterpart of {@link HttpProbeEngine} built on the JDK {@link HttpClient}.
+ * Probes return {@link CompletableFuture}s driven by the client's selector thread, so hundreds of
+ * targets can be in flight without a thread each; at most {@code maxInFlight} requests are
+ * outstanding and the rest wait in a queue. Method negotiation and caching work as in the
+ * blocking engine. The per-target timeout is applied as the request timeout.
+ */
+public class AsyncHttpProbeEngine {
+
+    private final HttpClient client;
+    private final MethodCache methods;
+    private final InFlightLimiter limiter;
+
+    public AsyncHttpProbeEngine(HttpClient client, Duration methodRecheckInterval, int maxInFlight) {
+        this.client = client;
+        this.methods = new MethodCache(methodRecheckInterval);
+        this.limiter = new InFlightLimiter(maxInFlight);
+    }
+
+    /** A client for apps that do not provide one; redirects are not followed, like a HEAD probe. */
+    public static HttpClient defaultClient(Duration connectTimeout) {
+        HttpClient.Builder b = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER);
+        if (connectTimeout != null && !connectTimeout.isZero() && !connectTimeout.isNegative()) {
+            b.connectTimeout(connectTimeout);
+        }
+        return b.build();
+    }
+
+    public CompletableFuture<HttpProbeEngine.Outcome> probe(URI uri, HttpProbeEngine.Options options) {
+        return limiter.submit(() -> negotiate(uri, options));
+    }
+
+    /** Probes waiting for an in-flight slot. */
+    public int queued() {
+        return limiter.queued();
+    }
+
+    private CompletableFuture<HttpProbeEngine.Outcome> negotiate(URI uri, HttpProbeEngine.Options options) {
+        MethodCache.Lookup cached = methods.lookup(uri);
+        if (cached.method() == null) {
+            return tryChain(uri, options, options.methodChain(), 0, cached.state());
+        }
+        return send(uri, cached.method(), options.timeout()).handle((status, error) -> {
+            if (error == null && worked(status)) {
+                return CompletableFuture.<HttpProbeEngine.Outcome>completedFuture(
+                        new HttpProbeEngine.Outcome(cached.method(), status, cached.state()));
+            }
+            methods.forget(uri);
+            if (error != null) {
+                return CompletableFuture.<HttpProbeEngine.Outcome>failedFuture(unwrap(error));
+            }
+            if (status != 405) {
+                return CompletableFuture.<HttpProbeEngine.Outcome>completedFuture(
+                        new HttpProbeEngine.Outcome(cached.method(), status, "invalidated"));
+            }
+            return tryChain(uri, options, options.methodChain(), 0, "invalidated");
+        }).thenCompose(f -> f);
+    }
+
+    /**
+     * Same rule as the blocking engine, where {@code RestClient} throws on 4xx and 5xx: only a
+     * 2xx or 3xx answer proves a method works, and any other answer drops the cached one.
+     */
+    private static boolean worked(int status) {
+        return status >= 200 && status < 400;
+    }
+
+    private CompletableFuture<HttpProbeEngine.Outcome> tryChain(URI uri, HttpProbeEngine.Options options,
+                                                                List<String> chain, int index, String state) {
+        String method = chain.get(index);
+        return send(uri, method, options.timeout()).thenCompose(status -> {
+            if (status == 405 && index + 1 < chain.size()) {
+                return tryChain(uri, options, chain, index + 1, state);
+            }
+            if (worked(status)) {
+                methods.remember(uri, method);
+            }
+            return CompletableFuture.completedFuture(new HttpProbeEngine.Outcome(method, status, state));
+        });
+    }
+
+    private CompletableFuture<Integer> send(URI uri, String method, Duration timeout) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(uri)
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .header("Accept", "*/*");
+        if (timeout != null && !timeout.isZero() && !timeout.isNegative()) {
+            b.timeout(timeout);
+        }
+        return client.sendAsync(b.build(), HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private Throwable unwrap(Throwable t) {
+        return (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.health.http;
+
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * HTTP availability probe shared by the external-service and endpoint indicators.
+ *
+ * <p>Tries the preferred method (HEAD by default) and falls back to GET, then OPTIONS, when a
+ * server answers 405. The method that worked is remembered per URI, so later probes need one
+ * round-trip; the choice is re-negotiated after {@code methodRecheckInterval} or as soon as the
+ * cached method fails. Each probe runs under a per-target deadline and at most
+ * {@code maxConcurrentPerHost} probes run against one host at a time.
+ *
+ * <p>Connect and read timeouts stay with the parent-provided {@link RestClient}; the deadline
+ * here bounds the whole probe, and a probe that misses it is interrupted.
+ */
+public class HttpProbeEngine implements AutoCloseable {
+
+    public record Options(String preferredMethod, boolean allowGetFallback, boolean allowOptionsFallback,
+                          Duration timeout) {
+        public static Options defaults(Duration timeout) {
+            return new Options("HEAD", true, true, timeout);
+        }
+
+        /** Preferred method followed by the allowed fallbacks. */
+        public List<String> methodChain() {
+            String preferred = preferredMethod == null ? "HEAD" : preferredMethod.toUpperCase(Locale.ROOT);
+            List<String> chain = new ArrayList<>(3);
+            chain.add(preferred);
+            if (allowGetFallback && !"GET".equals(preferred)) chain.add("GET");
+            if (allowOptionsFallback && !"OPTIONS".equals(preferred)) chain.add("OPTIONS");
+            return chain;
+        }
+    }
+
+    /** {@code methodCache} is one of hit, miss, expired, invalidated. */
+    public record Outcome(String method, int status, String methodCache) {}
+
+    private final MethodCache methods;
+    private final int maxConcurrentPerHost;
+    private final ConcurrentHashMap<String, Semaphore> hosts = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public HttpProbeEngine() {
+        this(Duration.ofMinutes(10), 4);
+    }
+
+    public HttpProbeEngine(Duration methodRecheckInterval, int maxConcurrentPerHost) {
+        this.methods = new MethodCache(methodRecheckInterval);
+        this.maxConcurrentPerHost = Math.max(1, maxConcurrentPerHost);
+    }
+
+    public Outcome probe(RestClient client, URI uri, Options options) throws Exception {
+        long budget = nanosOf(options.timeout());
+        long start = System.nanoTime();
+        Semaphore permits = hosts.computeIfAbsent(hostOf(uri), h -> new Semaphore(maxConcurrentPerHost));
+        // the permit is taken and returned by the task itself: a task cancelled before it runs holds none
+        Future<Outcome> f = executor.submit(() -> {
+            if (!permits.tryAcquire(Math.max(0, budget - (System.nanoTime() - start)), TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("host concurrency limit reached for " + hostOf(uri));
+            }
+            try {
+                return negotiate(client, uri, options);
+            } finally {
+                permits.release();
+            }
+        });
+        try {
+            return f.get(Math.max(0, budget - (System.nanoTime() - start)), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            f.cancel(true);
+            throw new TimeoutException("probe exceeded " + options.timeout().toMillis() + "ms");
+        } catch (InterruptedException e) {
+            f.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        }
+    }
+
+    /** Number of URIs with a remembered method. */
+    public int cachedMethods() {
+        return methods.size();
+    }
+
+    private Outcome negotiate(RestClient client, URI uri, Options options) {
+        MethodCache.Lookup cached = methods.lookup(uri);
+        String state = cached.state();
+        if (cached.method() != null) {
+            try {
+                return new Outcome(cached.method(), execute(client, cached.method(), uri), state);
+            } catch (RuntimeException e) {
+                methods.forget(uri);
+                if (!isMethodNotAllowed(e)) throw e;
+                state = "invalidated";
+            }
+        }
+        RuntimeException last = null;
+        for (String method : options.methodChain()) {
+            try {
+                int status = execute(client, method, uri);
+                methods.remember(uri, method);
+                return new Outcome(method, status, state);
+            } catch (RuntimeException e) {
+                if (!isMethodNotAllowed(e)) throw e;
+                last = e;
+            }
+        }
+        throw last;
+    }
+
+    private int execute(RestClient client, String method, URI uri) {
+        return switch (method) {
+            case "HEAD" -> client.head().uri(uri).header("Accept", "*/*").retrieve().toBodilessEntity().getStatusCode().value();
+            case "GET" -> client.get().uri(uri).header("Accept", "*/*").retrieve().toBodilessEntity().getStatusCode().value();
+            case "OPTIONS" -> client.options().uri(uri).retrieve().toBodilessEntity().getStatusCode().value();
+            default -> throw new IllegalArgumentException("Unsupported probe method: " + method);
+        };
+    }
+
+    private boolean isMethodNotAllowed(RuntimeException e) {
+        return e instanceof RestClientResponseException rre && rre.getStatusCode().value() == 405;
+    }
+
+    private String hostOf(URI uri) {
+        return uri.getHost() == null ? String.valueOf(uri.getAuthority()) : uri.getHost() + ":" + uri.getPort();
+    }
+
+    private long nanosOf(Duration d) {
+        return (d == null || d.isNegative() || d.isZero()) ? Long.MAX_VALUE / 4 : d.toNanos();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
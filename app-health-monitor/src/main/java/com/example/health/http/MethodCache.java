@@ -0,0 +1,43 @@
+package com.example.health.http;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which HTTP method a target accepts, so probes skip the HEAD/GET/OPTIONS negotiation
+ * until the entry expires or is dropped after a failure.
+ */
+final class MethodCache {
+
+    /** {@code method} is null unless {@code state} is "hit". */
+    record Lookup(String method, String state) {}
+
+    private record Entry(String method, long learnedAt) {}
+
+    private final long recheckNanos;
+    private final ConcurrentHashMap<URI, Entry> entries = new ConcurrentHashMap<>();
+
+    MethodCache(Duration recheckInterval) {
+        this.recheckNanos = recheckInterval == null ? Long.MAX_VALUE : recheckInterval.toNanos();
+    }
+
+    Lookup lookup(URI uri) {
+        Entry e = entries.get(uri);
+        if (e == null) return new Lookup(null, "miss");
+        if (System.nanoTime() - e.learnedAt() >= recheckNanos) return new Lookup(null, "expired");
+        return new Lookup(e.method(), "hit");
+    }
+
+    void remember(URI uri, String method) {
+        entries.put(uri, new Entry(method, System.nanoTime()));
+    }
+
+    void forget(URI uri) {
+        entries.remove(uri);
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.health.indicator;
+
+import com.example.health.engine.AsyncHealthIndicator;
+import com.example.health.engine.CircuitBreaker;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/** {@link CircuitBreakerHealthIndicator} for non-blocking indicators; an open circuit completes immediately. */
+public class AsyncCircuitBreakerHealthIndicator extends CircuitBreakerHealthIndicator implements AsyncHealthIndicator {
+
+    private final AsyncHealthIndicator async;
+
+    public AsyncCircuitBreakerHealthIndicator(AsyncHealthIndicator delegate, CircuitBreaker breaker) {
+        super(delegate, breaker);
+        this.async = delegate;
+    }
+
+    @Override
+    public Health health() {
+        return healthAsync().join();
+    }
+
+    @Override
+    public CompletableFuture<Health> healthAsync() {
+        Health open = breaker.tryAcquire();
+        if (open != null) {
+            return CompletableFuture.completedFuture(open);
+        }
+        CompletableFuture<Health> started;
+        try {
+            started = async.healthAsync();
+        } catch (RuntimeException e) {
+            breaker.onError(e);
+            return CompletableFuture.failedFuture(e);
+        }
+        return started.whenComplete((h, error) -> {
+            if (error != null) {
+                breaker.onError(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        }).thenApply(h -> h == null ? null : breaker.onResult(h));
+    }
+}
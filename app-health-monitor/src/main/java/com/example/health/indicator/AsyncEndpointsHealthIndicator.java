@@ -0,0 +1,85 @@
+package com.example.health.indicator;
+
+import com.example.health.config.AppHealthProperties;
+import com.example.health.engine.AsyncHealthIndicator;
+import com.example.health.http.AsyncHttpProbeEngine;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * {@link EndpointsHealthIndicator} whose probes are issued all at once through the
+ * {@link AsyncHttpProbeEngine}; the listing and the details are the same.
+ */
+public class AsyncEndpointsHealthIndicator extends EndpointsHealthIndicator implements AsyncHealthIndicator {
+
+    private final AsyncHttpProbeEngine engine;
+
+    public AsyncEndpointsHealthIndicator(RequestMappingHandlerMapping mapping,
+                                         AppHealthProperties.Endpoints props,
+                                         AsyncHttpProbeEngine engine,
+                                         Duration probeTimeout) {
+        super(mapping, props, probeTimeout);
+        this.engine = Objects.requireNonNull(engine, "engine");
+    }
+
+    /** Over an index of any mapping source, e.g. WebFlux handler mappings and router functions. */
+    public AsyncEndpointsHealthIndicator(EndpointDescriptorIndex index,
+                                         AppHealthProperties.Endpoints props,
+                                         AsyncHttpProbeEngine engine,
+                                         Duration probeTimeout) {
+        super(index, props, probeTimeout);
+        this.engine = Objects.requireNonNull(engine, "engine");
+    }
+
+    @Override
+    public Health health() {
+        return healthAsync().join();
+    }
+
+    @Override
+    public CompletableFuture<Health> healthAsync() {
+        long start = System.nanoTime();
+        Map<String, Object> details = listing();
+        if (!shouldProbe()) {
+            return CompletableFuture.completedFuture(result(details, List.of(), start));
+        }
+        List<CompletableFuture<Map<String, Object>>> probes = new ArrayList<>();
+        for (String raw : getProps().getProbePaths()) {
+            probes.add(probe(normalizePath(raw)));
+        }
+        return CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<Map<String, Object>> probeResults = new ArrayList<>(probes.size());
+            probes.forEach(f -> probeResults.add(f.join()));
+            return result(details, probeResults, start);
+        });
+    }
+
+    @Override
+    protected boolean shouldProbe() {
+        return hasProbePaths();
+    }
+
+    private CompletableFuture<Map<String, Object>> probe(String path) {
+        long ps = System.nanoTime();
+        CompletableFuture<Map<String, Object>> started;
+        try {
+            started = engine.probe(uriOf(path), getProbeOptions())
+                    .thenApply(outcome -> probeEntry(path, outcome, elapsedMs(ps)));
+        } catch (RuntimeException ex) {
+            started = CompletableFuture.failedFuture(ex);
+        }
+        return started.exceptionally(ex -> probeError(path, unwrap(ex), elapsedMs(ps)));
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.health.indicator;
+
+import com.example.health.engine.AsyncHealthIndicator;
+import com.example.health.http.AsyncHttpProbeEngine;
+import com.example.health.http.HttpProbeEngine;
+import org.springframework.boot.actuate.health.Health;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking variant of {@link ExternalServiceHealthIndicator}: same method negotiation and
+ * the same details, but the probe does not hold a thread while the request is outstanding.
+ */
+public class AsyncExternalServiceHealthIndicator implements AsyncHealthIndicator {
+    private final String name;
+    private final URI uri;
+    private final AsyncHttpProbeEngine engine;
+    private final HttpProbeEngine.Options options;
+
+    public AsyncExternalServiceHealthIndicator(String name, URI uri, AsyncHttpProbeEngine engine, Duration timeout) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.uri = Objects.requireNonNull(uri, "uri");
+        this.engine = Objects.requireNonNull(engine, "engine");
+        this.options = HttpProbeEngine.Options.defaults(timeout);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CompletableFuture<Health> healthAsync() {
+        long start = System.nanoTime();
+        CompletableFuture<HttpProbeEngine.Outcome> probe;
+        try {
+            probe = engine.probe(uri, options);
+        } catch (RuntimeException e) {
+            probe = CompletableFuture.failedFuture(e);
+        }
+        return probe.handle((result, error) -> {
+            long ms = elapsedMs(start);
+            if (error != null) {
+                Throwable e = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+                return Health.down()
+                        .withDetail("component", "external:" + name)
+                        .withDetail("type", "external")
+                        .withDetail("route", uri.toString())
+                        .withDetail("errorKind", e.getClass().getSimpleName())
+                        .withDetail("error", e.getMessage())
+                        .withDetail("latencyMs", ms)
+                        .build();
+            }
+            Health.Builder b = is2xx(result.status()) ? Health.up() : Health.down();
+            return b.withDetail("component", "external:" + name)
+                    .withDetail("type", "external")
+                    .withDetail("route", uri.toString())
+                    .withDetail("method", result.method())
+                    .withDetail("status", result.status())
+                    .withDetail("methodCache", result.methodCache())
+                    .withDetail("latencyMs", ms)
+                    .build();
+        });
+    }
+
+    private boolean is2xx(int code) {
+        return code >= 200 && code < 300;
+    }
+
+    private long elapsedMs(long startNs) {
+        return (System.nanoTime() - startNs) / 1_000_000;
+    }
+}
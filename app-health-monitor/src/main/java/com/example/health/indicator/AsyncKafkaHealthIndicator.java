@@ -0,0 +1,45 @@
+package com.example.health.indicator;
+
+import com.example.health.engine.AsyncHealthIndicator;
+import com.example.health.probe.AsyncKafkaProbe;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking variant of {@link KafkaHealthIndicator} for an {@link AsyncKafkaProbe}: same
+ * details, but no thread is held while the admin calls are outstanding.
+ */
+public class AsyncKafkaHealthIndicator extends KafkaHealthIndicator implements AsyncHealthIndicator {
+    private final AsyncKafkaProbe probe;
+
+    public AsyncKafkaHealthIndicator(AsyncKafkaProbe probe) {
+        super(probe);
+        this.probe = probe;
+    }
+
+    @Override
+    public CompletableFuture<Health> healthAsync() {
+        long start = System.nanoTime();
+        CompletionStage<AsyncKafkaProbe.Result> stage;
+        try {
+            stage = probe.probeAsync();
+        } catch (RuntimeException e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+        return stage.toCompletableFuture().handle((result, error) -> {
+            if (error != null) {
+                Throwable e = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+                return down(e, start);
+            }
+            return toHealth(result, start);
+        });
+    }
+
+    @Override
+    public Health health() {
+        return healthAsync().join();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.health.indicator;
+
+import com.example.health.engine.AsyncHealthIndicator;
+import com.example.health.shared.ResultSharing;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link SharedHealthIndicator} for non-blocking indicators. Store calls block, so they run on
+ * the sharing's virtual threads. The delegate's request still holds no thread while it waits.
+ */
+public class AsyncSharedHealthIndicator extends SharedHealthIndicator implements AsyncHealthIndicator {
+
+    private final AsyncHealthIndicator async;
+
+    public AsyncSharedHealthIndicator(AsyncHealthIndicator delegate, ResultSharing sharing, String key) {
+        super(delegate, sharing, key);
+        this.async = delegate;
+    }
+
+    @Override
+    public Health health() {
+        return healthAsync().join();
+    }
+
+    @Override
+    public CompletableFuture<Health> healthAsync() {
+        return CompletableFuture.supplyAsync(() -> sharing.decide(key), sharing.executor()).thenCompose(decision -> {
+            if (decision instanceof ResultSharing.Shared shared) {
+                return CompletableFuture.completedFuture(shared.health());
+            }
+            CompletableFuture<Health> started;
+            try {
+                started = async.healthAsync();
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            if (decision instanceof ResultSharing.Owner) {
+                return started.thenApplyAsync(h -> h == null ? null : sharing.publish(key, h), sharing.executor());
+            }
+            return started.thenApply(h -> h == null ? null : sharing.local(h));
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.health.indicator;
+
+import com.example.health.engine.AsyncHealthIndicator;
+import com.example.health.engine.CircuitBreaker;
+import com.example.health.engine.DerivedHealthIndicator;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Puts a {@link CircuitBreaker} in front of an indicator: while the circuit is open the
+ * delegate is not called and the last DOWN result is reported with {@code circuit=open}.
+ */
+public class CircuitBreakerHealthIndicator implements HealthIndicator {
+
+    protected final HealthIndicator delegate;
+    protected final CircuitBreaker breaker;
+
+    public CircuitBreakerHealthIndicator(HealthIndicator delegate, CircuitBreaker breaker) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.breaker = Objects.requireNonNull(breaker, "breaker");
+    }
+
+    @Override
+    public Health health() {
+        Health open = breaker.tryAcquire();
+        if (open != null) {
+            return open;
+        }
+        Health h;
+        try {
+            h = delegate.health();
+        } catch (RuntimeException e) {
+            breaker.onError(e);
+            throw e;
+        }
+        return h == null ? null : breaker.onResult(h);
+    }
+
+    public HealthIndicator getDelegate() {
+        return delegate;
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    /** Gives every probing leaf of the tree its own breaker; derived indicators are left as they are. */
+    public static HealthContributor wrap(HealthContributor contributor, Supplier<CircuitBreaker> breakers) {
+        if (contributor instanceof DerivedHealthIndicator) {
+            return contributor;
+        }
+        if (contributor instanceof AsyncHealthIndicator async) {
+            return new AsyncCircuitBreakerHealthIndicator(async, breakers.get());
+        }
+        if (contributor instanceof HealthIndicator hi) {
+            return new CircuitBreakerHealthIndicator(hi, breakers.get());
+        }
+        if (contributor instanceof CompositeHealthContributor composite) {
+            Map<String, HealthContributor> wrapped = new LinkedHashMap<>();
+            composite.forEach(named -> wrapped.put(named.getName(), wrap(named.getContributor(), breakers)));
+            return CompositeHealthContributor.fromMap(wrapped);
+        }
+        return contributor;
+    }
+
+    /** The indicator behind a breaker, or the contributor itself. */
+    public static HealthContributor unwrap(HealthContributor contributor) {
+        return contributor instanceof CircuitBreakerHealthIndicator cb ? cb.getDelegate() : contributor;
+    }
+}
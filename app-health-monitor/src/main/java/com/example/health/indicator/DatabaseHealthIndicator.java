@@ -28,13 +28,16 @@ public class DatabaseHealthIndicator implements HealthIndicator {
                         .build();
             }
             long ms = (System.nanoTime() - start) / 1_000_000;
-            return Health.up()
+            Health.Builder b = Health.up()
                     .withDetail("component", "database")
                     .withDetail("type", dbType)
                     .withDetail("latencyMs", ms)
-                    .withDetail("dbProduct", r.product())
-                    .withDetail("dbVersion", r.version())
-                    .build();
+                    .withDetail("dbProduct", String.valueOf(r.product()))
+                    .withDetail("dbVersion", String.valueOf(r.version()));
+            if (r.poolWaitMs() != null) b.withDetail("poolWaitMs", r.poolWaitMs());
+            if (r.queryMs() != null) b.withDetail("queryMs", r.queryMs());
+            if (r.mode() != null) b.withDetail("mode", r.mode());
+            return b.build();
         } catch (Exception e) {
             long ms = (System.nanoTime() - start) / 1_000_000;
             return Health.down()
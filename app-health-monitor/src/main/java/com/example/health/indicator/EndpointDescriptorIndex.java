@@ -0,0 +1,92 @@
+package com.example.health.indicator;
+
+import com.example.health.config.AppHealthProperties;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Immutable, sorted view of the application's request mappings as reported by
+ * {@link EndpointsHealthIndicator}. Built once, on first use or when the context is refreshed,
+ * and shared by every health call until {@link #invalidate()}.
+ *
+ * <p>Mappings registered programmatically after startup
+ * ({@code RequestMappingHandlerMapping.registerMapping}) are picked up after {@link #invalidate()}.
+ * Where the mappings come from is up to the {@code source}: the MVC handler mapping by default
+ * ({@link MvcEndpointMappings}), or WebFlux mappings and router functions in reactive apps.
+ */
+public final class EndpointDescriptorIndex {
+
+    /** {@code items} is already truncated to {@code maxList}; {@code count} is the full size. */
+    public record Index(List<Map<String, Object>> descriptors, int count, List<Map<String, Object>> items) {}
+
+    /** One mapping as the source reports it; {@code error} marks the framework's error handler. */
+    public record Mapping(Collection<String> patterns, Collection<String> methods, String handler, boolean error) {}
+
+    private final Supplier<? extends Collection<Mapping>> source;
+    private final AppHealthProperties.Endpoints props;
+    private volatile Index current;
+
+    public EndpointDescriptorIndex(RequestMappingHandlerMapping mapping, AppHealthProperties.Endpoints props) {
+        this(MvcEndpointMappings.of(mapping), props);
+    }
+
+    public EndpointDescriptorIndex(Supplier<? extends Collection<Mapping>> source, AppHealthProperties.Endpoints props) {
+        this.source = Objects.requireNonNull(source, "source");
+        this.props = Objects.requireNonNull(props, "props");
+    }
+
+    public Index current() {
+        Index index = current;
+        if (index == null) {
+            synchronized (this) {
+                index = current;
+                if (index == null) {
+                    index = build();
+                    current = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /** Drops the index; the next call rebuilds it from the handler mapping. */
+    public void invalidate() {
+        current = null;
+    }
+
+    /** Rebuilds immediately, e.g. right after a context refresh. */
+    public synchronized void rebuild() {
+        current = build();
+    }
+
+    private Index build() {
+        List<Map<String, Object>> descriptors = new ArrayList<>();
+        for (Mapping mapping : source.get()) {
+            if (isIncludedEndpoint(mapping)) {
+                descriptors.add(descriptorOf(mapping));
+            }
+        }
+        descriptors.sort(Comparator.comparing(m -> m.get("pattern").toString()));
+        List<Map<String, Object>> all = List.copyOf(descriptors);
+        Integer max = props.getMaxList();
+        List<Map<String, Object>> items = (max == null || max <= 0 || all.size() <= max) ? all : all.subList(0, max);
+        return new Index(all, all.size(), items);
+    }
+
+    private boolean isIncludedEndpoint(Mapping mapping) {
+        boolean isActuator = mapping.patterns().stream().anyMatch(p -> p.startsWith("/actuator"));
+        if (mapping.error() && !props.isIncludeError()) return false;
+        if (isActuator && !props.isIncludeActuator()) return false;
+        return true;
+    }
+
+    private Map<String, Object> descriptorOf(Mapping mapping) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("pattern", String.join(",", mapping.patterns()));
+        m.put("methods", Collections.unmodifiableSet(new LinkedHashSet<>(mapping.methods())));
+        m.put("handler", mapping.handler());
+        return Collections.unmodifiableMap(m);
+    }
+}
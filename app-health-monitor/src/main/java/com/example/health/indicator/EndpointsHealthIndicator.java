@@ -1,49 +1,73 @@
 package com.example.health.indicator;
 
 import com.example.health.config.AppHealthProperties;
+import com.example.health.http.HttpProbeEngine;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.web.client.RestClient;
-import org.springframework.web.method.HandlerMethod;
-import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Health indicator that summarizes application endpoints and (optionally) probes
- * a safe allowlist for basic availability. Designed to be fast and side-effect free.
+ * a safe allowlist for basic availability. Designed to be fast and side-effect free: the
+ * listing comes from a precomputed {@link EndpointDescriptorIndex}.
  */
 public class EndpointsHealthIndicator implements HealthIndicator {
 
-    private final RequestMappingHandlerMapping mapping;
+    private final EndpointDescriptorIndex index;
     private final AppHealthProperties.Endpoints props;
     private final RestClient restClient; // optional
+    private final HttpProbeEngine engine;
+    private final HttpProbeEngine.Options probeOptions;
 
     public EndpointsHealthIndicator(RequestMappingHandlerMapping mapping,
                                     AppHealthProperties.Endpoints props,
                                     RestClient restClient) {
-        this.mapping = Objects.requireNonNull(mapping, "mapping");
+        this(mapping, props, restClient, new HttpProbeEngine(), props.getProbeTimeout());
+    }
+
+    public EndpointsHealthIndicator(RequestMappingHandlerMapping mapping,
+                                    AppHealthProperties.Endpoints props,
+                                    RestClient restClient,
+                                    HttpProbeEngine engine,
+                                    Duration probeTimeout) {
         this.props = Objects.requireNonNull(props, "props");
+        this.index = new EndpointDescriptorIndex(mapping, props);
         this.restClient = restClient; // may be null by design
+        this.engine = Objects.requireNonNull(engine, "engine");
+        this.probeOptions = new HttpProbeEngine.Options(props.getProbeMethod(), props.isAllowGetFallback(),
+                props.isAllowOptionsFallback(), probeTimeout);
+    }
+
+    /** For subclasses that probe through another engine; {@code restClient} and the blocking engine are unused. */
+    protected EndpointsHealthIndicator(RequestMappingHandlerMapping mapping,
+                                       AppHealthProperties.Endpoints props,
+                                       Duration probeTimeout) {
+        this(new EndpointDescriptorIndex(mapping, props), props, probeTimeout);
+    }
+
+    /** As above, over an index of any mapping source (e.g. WebFlux). */
+    protected EndpointsHealthIndicator(EndpointDescriptorIndex index,
+                                       AppHealthProperties.Endpoints props,
+                                       Duration probeTimeout) {
+        this.props = Objects.requireNonNull(props, "props");
+        this.index = Objects.requireNonNull(index, "index");
+        this.restClient = null;
+        this.engine = null;
+        this.probeOptions = new HttpProbeEngine.Options(props.getProbeMethod(), props.isAllowGetFallback(),
+                props.isAllowOptionsFallback(), probeTimeout);
     }
 
     @Override
     public Health health() {
         long start = System.nanoTime();
+        Map<String, Object> details = listing();
 
-        List<Map<String, Object>> descriptors = collectEndpointDescriptors();
-        List<Map<String, Object>> limited = limit(descriptors, props.getMaxList());
-
-        Map<String, Object> details = new LinkedHashMap<>();
-        details.put("component", "endpoints");
-        details.put("count", descriptors.size());
-        details.put("items", limited);
-
-        boolean probeFailed = false;
         List<Map<String, Object>> probeResults = Collections.emptyList();
         if (shouldProbe()) {
             probeResults = new ArrayList<>();
@@ -51,117 +75,95 @@ public class EndpointsHealthIndicator implements HealthIndicator {
                 String path = normalizePath(raw);
                 long ps = System.nanoTime();
                 try {
-                    URI uri = UriComponentsBuilder.fromUriString(props.getProbeBaseUrl()).path(path).build().toUri();
-                    ProbeOutcome outcome = executeProbeWithFallback(uri);
-                    long pms = elapsedMs(ps);
-                    Map<String, Object> r = new LinkedHashMap<>();
-                    r.put("path", path);
-                    r.put("status", outcome.status());
-                    r.put("method", outcome.method());
-                    r.put("latencyMs", pms);
-                    probeResults.add(r);
-                    if (outcome.status() == null || outcome.status() < 200 || outcome.status() >= 300) probeFailed = true;
+                    HttpProbeEngine.Outcome outcome = engine.probe(restClient, uriOf(path), probeOptions);
+                    probeResults.add(probeEntry(path, outcome, elapsedMs(ps)));
                 } catch (Exception ex) {
-                    long pms = elapsedMs(ps);
-                    Map<String, Object> r = new LinkedHashMap<>();
-                    r.put("path", path);
-                    r.put("error", ex.getMessage());
-                    r.put("errorKind", ex.getClass().getSimpleName());
-                    r.put("latencyMs", pms);
-                    probeResults.add(r);
-                    probeFailed = true;
+                    probeResults.add(probeError(path, ex, elapsedMs(ps)));
                 }
             }
         }
+        return result(details, probeResults, start);
+    }
+
+    // ---- shared with the async variant ----
+
+    /** Endpoint listing part of the details: component, count and (limited) items, from the index. */
+    protected Map<String, Object> listing() {
+        EndpointDescriptorIndex.Index current = index.current();
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("component", "endpoints");
+        details.put("count", current.count());
+        details.put("items", current.items());
+        return details;
+    }
+
+    /** Descriptor index over the handler mapping; see {@link EndpointDescriptorIndex#invalidate()}. */
+    public EndpointDescriptorIndex getIndex() {
+        return index;
+    }
+
+    protected Map<String, Object> probeEntry(String path, HttpProbeEngine.Outcome outcome, long latencyMs) {
+        Map<String, Object> r = new LinkedHashMap<>();
+        r.put("path", path);
+        r.put("status", outcome.status());
+        r.put("method", outcome.method());
+        r.put("methodCache", outcome.methodCache());
+        r.put("latencyMs", latencyMs);
+        return r;
+    }
+
+    protected Map<String, Object> probeError(String path, Throwable ex, long latencyMs) {
+        Map<String, Object> r = new LinkedHashMap<>();
+        r.put("path", path);
+        r.put("error", ex.getMessage());
+        r.put("errorKind", ex.getClass().getSimpleName());
+        r.put("latencyMs", latencyMs);
+        return r;
+    }
+
+    /** DOWN when any probe failed or answered outside 2xx. */
+    protected Health result(Map<String, Object> details, List<Map<String, Object>> probeResults, long startNs) {
+        boolean probeFailed = false;
+        for (Map<String, Object> r : probeResults) {
+            Object status = r.get("status");
+            if (!(status instanceof Integer code) || code < 200 || code >= 300) probeFailed = true;
+        }
         if (!probeResults.isEmpty()) {
             details.put("probes", probeResults);
         }
-
-        details.put("latencyMs", elapsedMs(start));
+        details.put("latencyMs", elapsedMs(startNs));
         return (probeFailed ? Health.down() : Health.up())
                 .withDetail("type", "endpoints")
                 .withDetails(details)
                 .build();
     }
 
-    // ---- internals ----
-
-    private List<Map<String, Object>> collectEndpointDescriptors() {
-        return mapping.getHandlerMethods().entrySet().stream()
-                .filter(e -> isIncludedEndpoint(e.getValue(), e.getKey()))
-                .map(e -> descriptorOf(e.getKey(), e.getValue()))
-                .sorted(Comparator.comparing(m -> m.get("pattern").toString()))
-                .collect(Collectors.toList());
+    protected boolean shouldProbe() {
+        return restClient != null && hasProbePaths();
     }
 
-    private boolean isIncludedEndpoint(HandlerMethod handler, RequestMappingInfo info) {
-        boolean isError = handler.getBeanType().getName().contains("BasicErrorController");
-        boolean isActuator = info.getPathPatternsCondition() != null &&
-                info.getPathPatternsCondition().getPatterns().stream().anyMatch(p -> p.getPatternString().startsWith("/actuator"));
-        if (isError && !props.isIncludeError()) return false;
-        if (isActuator && !props.isIncludeActuator()) return false;
-        return true;
+    protected boolean hasProbePaths() {
+        return props.getProbeBaseUrl() != null && props.getProbePaths() != null && !props.getProbePaths().isEmpty();
     }
 
-    private Map<String, Object> descriptorOf(RequestMappingInfo info, HandlerMethod method) {
-        var patterns = info.getPathPatternsCondition() != null
-                ? info.getPathPatternsCondition().getPatterns().stream().map(Object::toString).collect(Collectors.toCollection(LinkedHashSet::new))
-                : Collections.<String>emptySet();
-        var methods = info.getMethodsCondition().getMethods().stream().map(Enum::name).collect(Collectors.toCollection(LinkedHashSet::new));
-        Map<String, Object> m = new LinkedHashMap<>();
-        m.put("pattern", patterns.isEmpty() ? "" : String.join(",", patterns));
-        m.put("methods", methods);
-        m.put("handler", method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
-        return m;
+    protected AppHealthProperties.Endpoints getProps() {
+        return props;
     }
 
-    private List<Map<String, Object>> limit(List<Map<String, Object>> items, Integer max) {
-        if (max == null || max <= 0 || items.size() <= max) return items;
-        return items.subList(0, max);
+    protected HttpProbeEngine.Options getProbeOptions() {
+        return probeOptions;
     }
 
-    private boolean shouldProbe() {
-        return restClient != null && props.getProbeBaseUrl() != null && props.getProbePaths() != null && !props.getProbePaths().isEmpty();
+    protected URI uriOf(String path) {
+        return UriComponentsBuilder.fromUriString(props.getProbeBaseUrl()).path(path).build().toUri();
     }
 
-    private String normalizePath(String path) {
+    protected String normalizePath(String path) {
         if (path == null || path.isBlank()) return "/";
         return path.startsWith("/") ? path : "/" + path;
     }
 
-    private long elapsedMs(long startNs) {
+    protected long elapsedMs(long startNs) {
         return (System.nanoTime() - startNs) / 1_000_000;
     }
-
-    private record ProbeOutcome(Integer status, String method) {}
-
-    private ProbeOutcome executeProbeWithFallback(URI uri) {
-        String method = props.getProbeMethod() == null ? "HEAD" : props.getProbeMethod().toUpperCase(Locale.ROOT);
-        try {
-            return new ProbeOutcome(executeProbe(method, uri), method);
-        } catch (org.springframework.web.client.RestClientResponseException e) {
-            if (e.getStatusCode().value() == 405) {
-                if (props.isAllowGetFallback() && !"GET".equals(method)) {
-                    try {
-                        return new ProbeOutcome(executeProbe("GET", uri), "GET");
-                    } catch (org.springframework.web.client.RestClientResponseException ex) {
-                        if (ex.getStatusCode().value() != 405) throw ex; // fall through
-                    }
-                }
-                if (props.isAllowOptionsFallback() && !"OPTIONS".equals(method)) {
-                    return new ProbeOutcome(executeProbe("OPTIONS", uri), "OPTIONS");
-                }
-            }
-            throw e;
-        }
-    }
-
-    private Integer executeProbe(String method, URI uri) {
-        return switch (method) {
-            case "HEAD" -> restClient.head().uri(uri).retrieve().toBodilessEntity().getStatusCode().value();
-            case "GET" -> restClient.get().uri(uri).retrieve().toBodilessEntity().getStatusCode().value();
-            case "OPTIONS" -> restClient.options().uri(uri).retrieve().toBodilessEntity().getStatusCode().value();
-            default -> throw new IllegalArgumentException("Unsupported probe method: " + method);
-        };
-    }
 }
@@ -1,35 +1,48 @@
 package com.example.health.indicator;
 
+import com.example.health.http.HttpProbeEngine;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestClient;
-import org.springframework.web.client.RestClientResponseException;
 
 import java.net.URI;
-import java.util.Locale;
+import java.time.Duration;
 import java.util.Objects;
 
 /**
  * External service health. Tries a cheap HEAD first; when a server rejects the method (405),
- * falls back to GET, then OPTIONS. Does not mask other failures.
+ * falls back to GET, then OPTIONS. Does not mask other failures. The method that worked is
+ * remembered per URI by the shared {@link HttpProbeEngine}.
  */
 public class ExternalServiceHealthIndicator implements HealthIndicator {
     private final RestClient restClient;
     private final URI uri;
     private final String name;
+    private final HttpProbeEngine engine;
+    private final HttpProbeEngine.Options options;
 
     public ExternalServiceHealthIndicator(String name, RestClient restClient, URI uri) {
+        this(name, restClient, uri, new HttpProbeEngine(), null);
+    }
+
+    public ExternalServiceHealthIndicator(String name, RestClient restClient, URI uri,
+                                          HttpProbeEngine engine, Duration timeout) {
         this.name = Objects.requireNonNull(name, "name");
         this.restClient = Objects.requireNonNull(restClient, "restClient");
         this.uri = Objects.requireNonNull(uri, "uri");
+        this.engine = Objects.requireNonNull(engine, "engine");
+        this.options = HttpProbeEngine.Options.defaults(timeout);
+    }
+
+    public String getName() {
+        return name;
     }
 
     @Override
     public Health health() {
         long start = System.nanoTime();
         try {
-            ProbeResult result = probeWithFallback(uri);
+            HttpProbeEngine.Outcome result = engine.probe(restClient, uri, options);
             long ms = elapsedMs(start);
             boolean ok = is2xx(result.status());
             Health.Builder b = ok ? Health.up() : Health.down();
@@ -38,6 +51,7 @@ public class ExternalServiceHealthIndicator implements HealthIndicator {
                     .withDetail("route", uri.toString())
                     .withDetail("method", result.method())
                     .withDetail("status", result.status())
+                    .withDetail("methodCache", result.methodCache())
                     .withDetail("latencyMs", ms)
                     .build();
         } catch (Exception e) {
@@ -53,28 +67,6 @@ public class ExternalServiceHealthIndicator implements HealthIndicator {
         }
     }
 
-    private ProbeResult probeWithFallback(URI uri) {
-        try {
-            return new ProbeResult("HEAD", statusOf(restClient.head().uri(uri).header("Accept", "*/*").retrieve().toBodilessEntity()));
-        } catch (RestClientResponseException e) {
-            if (e.getStatusCode() != null && e.getStatusCode().value() == 405) {
-                try {
-                    return new ProbeResult("GET", statusOf(restClient.get().uri(uri).header("Accept", "*/*").retrieve().toBodilessEntity()));
-                } catch (RestClientResponseException ex) {
-                    if (ex.getStatusCode() != null && ex.getStatusCode().value() == 405) {
-                        return new ProbeResult("OPTIONS", statusOf(restClient.options().uri(uri).retrieve().toBodilessEntity()));
-                    }
-                    throw ex;
-                }
-            }
-            throw e;
-        }
-    }
-
-    private int statusOf(ResponseEntity<Void> resp) {
-        return resp.getStatusCode().value();
-    }
-
     private boolean is2xx(int code) {
         return code >= 200 && code < 300;
     }
@@ -82,6 +74,4 @@ public class ExternalServiceHealthIndicator implements HealthIndicator {
     private long elapsedMs(long startNs) {
         return (System.nanoTime() - startNs) / 1_000_000;
     }
-
-    private record ProbeResult(String method, int status) { }
 }
@@ -1,59 +1,93 @@
 package com.example.health.indicator;
 
+import com.example.health.engine.DerivedHealthIndicator;
+import com.example.health.engine.HealthEvaluator;
+import com.example.health.engine.HealthResult;
 import org.springframework.boot.actuate.health.*;
 
 import java.util.*;
 
-public class FlatSummaryHealthIndicator implements HealthIndicator {
+/**
+ * One flat list of every leaf under {@code root}. When evaluated as part of the {@code custom}
+ * composite it is derived from its siblings' results, so no indicator is called twice.
+ */
+public class FlatSummaryHealthIndicator implements DerivedHealthIndicator {
     private final HealthContributor root;
+    private final HealthEvaluator evaluator;
 
     public FlatSummaryHealthIndicator(HealthContributor root) {
+        this(root, new HealthEvaluator());
+    }
+
+    public FlatSummaryHealthIndicator(HealthContributor root, HealthEvaluator evaluator) {
         this.root = root;
+        this.evaluator = evaluator;
     }
 
     @Override
     public Health health() {
+        return summarize(evaluator.evaluate(root));
+    }
+
+    @Override
+    public Health derive(HealthResult siblings) {
+        return summarize(siblings);
+    }
+
+    /**
+     * Builds the flat view from an already evaluated tree instead of calling the indicators again.
+     * Other flat summaries found in the tree are skipped.
+     */
+    public Health summarize(HealthResult evaluated) {
+        return summaryOf(evaluated);
+    }
+
+    /** Flat view of any evaluated tree; used where no flat component is part of the tree. */
+    public static Health summaryOf(HealthResult evaluated) {
         List<Map<String, Object>> items = new ArrayList<>();
-        boolean anyDown = flatten("", root, items);
+        boolean[] anyDown = {false};
+        evaluated.forEachLeaf((path, leaf) -> {
+            if ("flat".equals(leaf.getDetails().get("component"))) return;
+            items.add(itemOf(path, leaf.getStatus(), leaf.getDetails()));
+            anyDown[0] |= !Status.UP.equals(leaf.getStatus());
+        });
+        return summary(items, anyDown[0]);
+    }
+
+    private static Health summary(List<Map<String, Object>> items, boolean anyDown) {
         Map<String, Object> details = new LinkedHashMap<>();
         details.put("component", "flat");
         details.put("items", items);
         return (anyDown ? Health.down() : Health.up()).withDetails(details).build();
     }
 
-    private boolean flatten(String prefix, HealthContributor contributor, List<Map<String, Object>> items) {
-        boolean anyDown = false;
-        if (contributor instanceof CompositeHealthContributor comp) {
-            for (NamedContributor<HealthContributor> child : comp) {
-                String name = prefix.isEmpty() ? child.getName() : prefix + "." + child.getName();
-                anyDown |= flatten(name, child.getContributor(), items);
-            }
-        } else if (contributor instanceof HealthIndicator hi) {
-            Health h = hi.health();
-            String status = h.getStatus().getCode();
-            Object type = h.getDetails().getOrDefault("type", inferType(prefix));
-            Map<String, Object> m = new LinkedHashMap<>();
-            m.put("name", prefix);
-            m.put("type", type);
-            m.put("status", status);
-            if (h.getDetails().containsKey("latencyMs")) m.put("latencyMs", h.getDetails().get("latencyMs"));
-            if (h.getDetails().containsKey("route")) m.put("route", h.getDetails().get("route"));
-            if (h.getDetails().containsKey("method")) m.put("method", h.getDetails().get("method"));
-            if (h.getDetails().containsKey("status")) m.put("statusCode", h.getDetails().get("status"));
-            if (h.getDetails().containsKey("nodeCount")) m.put("nodeCount", h.getDetails().get("nodeCount"));
-            if (h.getDetails().containsKey("clusterId")) m.put("clusterId", h.getDetails().get("clusterId"));
-            if (h.getDetails().containsKey("firstCollection")) m.put("firstCollection", h.getDetails().get("firstCollection"));
-            if (h.getDetails().containsKey("poolWaitMs")) m.put("poolWaitMs", h.getDetails().get("poolWaitMs"));
-            if (h.getDetails().containsKey("queryMs")) m.put("queryMs", h.getDetails().get("queryMs"));
-            if (h.getDetails().containsKey("errorKind")) m.put("errorKind", h.getDetails().get("errorKind"));
-            if (h.getDetails().containsKey("error")) m.put("error", h.getDetails().get("error"));
-            items.add(m);
-            anyDown |= !Status.UP.equals(h.getStatus());
-        }
-        return anyDown;
+    private static Map<String, Object> itemOf(String name, Status status, Map<String, Object> details) {
+        Object type = details.getOrDefault("type", inferType(name));
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("name", name);
+        m.put("type", type);
+        m.put("status", status.getCode());
+        if (details.containsKey("latencyMs")) m.put("latencyMs", details.get("latencyMs"));
+        if (details.containsKey("latencyP50Ms")) m.put("latencyP50Ms", details.get("latencyP50Ms"));
+        if (details.containsKey("latencyP90Ms")) m.put("latencyP90Ms", details.get("latencyP90Ms"));
+        if (details.containsKey("latencyP99Ms")) m.put("latencyP99Ms", details.get("latencyP99Ms"));
+        if (details.containsKey("latencyMaxMs")) m.put("latencyMaxMs", details.get("latencyMaxMs"));
+        if (details.containsKey("route")) m.put("route", details.get("route"));
+        if (details.containsKey("method")) m.put("method", details.get("method"));
+        if (details.containsKey("status")) m.put("statusCode", details.get("status"));
+        if (details.containsKey("nodeCount")) m.put("nodeCount", details.get("nodeCount"));
+        if (details.containsKey("clusterId")) m.put("clusterId", details.get("clusterId"));
+        if (details.containsKey("firstCollection")) m.put("firstCollection", details.get("firstCollection"));
+        if (details.containsKey("poolWaitMs")) m.put("poolWaitMs", details.get("poolWaitMs"));
+        if (details.containsKey("queryMs")) m.put("queryMs", details.get("queryMs"));
+        if (details.containsKey("errorKind")) m.put("errorKind", details.get("errorKind"));
+        if (details.containsKey("error")) m.put("error", details.get("error"));
+        if (details.containsKey("circuit")) m.put("circuit", details.get("circuit"));
+        if (details.containsKey("nextAttemptIn")) m.put("nextAttemptIn", details.get("nextAttemptIn"));
+        return m;
     }
 
-    private String inferType(String name) {
+    private static String inferType(String name) {
         if (name.startsWith("db")) return "database";
         if (name.startsWith("kafka")) return "kafka";
         if (name.startsWith("mongo")) return "mongo";
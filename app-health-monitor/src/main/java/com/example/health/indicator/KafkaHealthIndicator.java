@@ -4,6 +4,9 @@ import com.example.health.probe.KafkaProbe;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class KafkaHealthIndicator implements HealthIndicator {
     private final KafkaProbe probe;
 
@@ -15,33 +18,60 @@ public class KafkaHealthIndicator implements HealthIndicator {
     public Health health() {
         long start = System.nanoTime();
         try {
-            KafkaProbe.Result r = probe.probe();
-            if (r == null) {
-                long ms = (System.nanoTime() - start) / 1_000_000;
-                return Health.down()
-                        .withDetail("component", "kafka")
-                        .withDetail("type", "kafka")
-                        .withDetail("latencyMs", ms)
-                        .withDetail("error", "nullResult")
-                        .build();
-            }
-            long ms = (System.nanoTime() - start) / 1_000_000;
-            return Health.up()
-                    .withDetail("component", "kafka")
-                    .withDetail("type", "kafka")
-                    .withDetail("latencyMs", ms)
-                    .withDetail("nodeCount", r.nodeCount())
-                    .withDetail("clusterId", r.clusterId())
-                    .build();
+            return toHealth(probe.probe(), start);
         } catch (Exception e) {
-            long ms = (System.nanoTime() - start) / 1_000_000;
+            return down(e, start);
+        }
+    }
+
+    /** UP unless the result is null or a checked topic is missing, leaderless or below min ISR. */
+    protected Health toHealth(KafkaProbe.Result r, long startNs) {
+        long ms = (System.nanoTime() - startNs) / 1_000_000;
+        if (r == null) {
             return Health.down()
                     .withDetail("component", "kafka")
                     .withDetail("type", "kafka")
                     .withDetail("latencyMs", ms)
-                    .withDetail("errorKind", e.getClass().getSimpleName())
-                    .withDetail("error", e.getMessage())
+                    .withDetail("error", "nullResult")
                     .build();
         }
+        boolean healthy = r.topics().stream().allMatch(KafkaProbe.TopicStatus::healthy);
+        Health.Builder b = (healthy ? Health.up() : Health.down())
+                .withDetail("component", "kafka")
+                .withDetail("type", "kafka")
+                .withDetail("latencyMs", ms)
+                .withDetail("nodeCount", r.nodeCount())
+                .withDetail("clusterId", r.clusterId());
+        if (!r.topics().isEmpty()) {
+            b.withDetail("topics", topicDetails(r));
+        }
+        return b.build();
+    }
+
+    protected Health down(Throwable e, long startNs) {
+        long ms = (System.nanoTime() - startNs) / 1_000_000;
+        return Health.down()
+                .withDetail("component", "kafka")
+                .withDetail("type", "kafka")
+                .withDetail("latencyMs", ms)
+                .withDetail("errorKind", e.getClass().getSimpleName())
+                .withDetail("error", e.getMessage())
+                .build();
+    }
+
+    private static Map<String, Object> topicDetails(KafkaProbe.Result r) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (KafkaProbe.TopicStatus t : r.topics()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("exists", t.exists());
+            if (t.exists()) {
+                m.put("partitions", t.partitions());
+                m.put("leaderless", t.leaderless());
+                m.put("underReplicated", t.underReplicated());
+                m.put("underMinIsr", t.underMinIsr());
+            }
+            out.put(t.name(), m);
+        }
+        return out;
     }
 }
@@ -26,13 +26,14 @@ public class MongoHealthIndicator implements HealthIndicator {
                         .build();
             }
             long ms = (System.nanoTime() - start) / 1_000_000;
-            return Health.up()
+            Health.Builder b = Health.up()
                     .withDetail("component", "mongo")
                     .withDetail("type", "mongo")
                     .withDetail("latencyMs", ms)
-                    .withDetail("database", r.databaseName())
-                    .withDetail("firstCollection", r.firstCollection())
-                    .build();
+                    .withDetail("database", String.valueOf(r.databaseName()));
+            if (r.mode() != null) b.withDetail("mode", r.mode());
+            if (r.firstCollection() != null) b.withDetail("firstCollection", r.firstCollection());
+            return b.build();
         } catch (Exception e) {
             long ms = (System.nanoTime() - start) / 1_000_000;
             return Health.down()
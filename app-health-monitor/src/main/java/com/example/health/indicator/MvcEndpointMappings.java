@@ -0,0 +1,39 @@
+package com.example.health.indicator;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/** Mappings of the servlet {@link RequestMappingHandlerMapping}, for {@link EndpointDescriptorIndex}. */
+public final class MvcEndpointMappings {
+    private MvcEndpointMappings() {}
+
+    public static Supplier<Collection<EndpointDescriptorIndex.Mapping>> of(RequestMappingHandlerMapping mapping) {
+        Objects.requireNonNull(mapping, "mapping");
+        return () -> {
+            List<EndpointDescriptorIndex.Mapping> out = new ArrayList<>();
+            mapping.getHandlerMethods().forEach((info, handler) -> out.add(mappingOf(info, handler)));
+            return out;
+        };
+    }
+
+    private static EndpointDescriptorIndex.Mapping mappingOf(RequestMappingInfo info, HandlerMethod method) {
+        Set<String> patterns = new LinkedHashSet<>();
+        if (info.getPathPatternsCondition() != null) {
+            info.getPathPatternsCondition().getPatterns().forEach(p -> patterns.add(p.getPatternString()));
+        }
+        Set<String> methods = new LinkedHashSet<>();
+        info.getMethodsCondition().getMethods().forEach(m -> methods.add(m.name()));
+        boolean isError = method.getBeanType().getName().contains("BasicErrorController");
+        return new EndpointDescriptorIndex.Mapping(patterns, methods,
+                method.getBeanType().getSimpleName() + "." + method.getMethod().getName(), isError);
+    }
+}
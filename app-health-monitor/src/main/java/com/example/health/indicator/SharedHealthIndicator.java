@@ -0,0 +1,77 @@
+package com.example.health.indicator;
+
+import com.example.health.engine.AsyncHealthIndicator;
+import com.example.health.engine.DerivedHealthIndicator;
+import com.example.health.shared.ResultSharing;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shares an indicator's result across replicas (see {@link ResultSharing}): the replica holding
+ * the key's lease calls the delegate and publishes, the others report its result with
+ * {@code shared=replica}, {@code sharedBy} and {@code sharedAgeMs}.
+ */
+public class SharedHealthIndicator implements HealthIndicator {
+
+    protected final HealthIndicator delegate;
+    protected final ResultSharing sharing;
+    protected final String key;
+
+    public SharedHealthIndicator(HealthIndicator delegate, ResultSharing sharing, String key) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.sharing = Objects.requireNonNull(sharing, "sharing");
+        this.key = Objects.requireNonNull(key, "key");
+    }
+
+    @Override
+    public Health health() {
+        ResultSharing.Decision decision = sharing.decide(key);
+        if (decision instanceof ResultSharing.Shared shared) {
+            return shared.health();
+        }
+        Health h = delegate.health();
+        if (h == null) {
+            return null;
+        }
+        return decision instanceof ResultSharing.Owner ? sharing.publish(key, h) : sharing.local(h);
+    }
+
+    public HealthIndicator getDelegate() {
+        return delegate;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /** Shares every probing leaf of the tree under its own key; derived indicators are left as they are. */
+    public static HealthContributor wrap(HealthContributor contributor, ResultSharing sharing, String path) {
+        if (contributor instanceof DerivedHealthIndicator) {
+            return contributor;
+        }
+        if (contributor instanceof AsyncHealthIndicator async) {
+            return new AsyncSharedHealthIndicator(async, sharing, sharing.keyOf(path));
+        }
+        if (contributor instanceof HealthIndicator hi) {
+            return new SharedHealthIndicator(hi, sharing, sharing.keyOf(path));
+        }
+        if (contributor instanceof CompositeHealthContributor composite) {
+            Map<String, HealthContributor> wrapped = new LinkedHashMap<>();
+            composite.forEach(named -> wrapped.put(named.getName(),
+                    wrap(named.getContributor(), sharing, path + "." + named.getName())));
+            return CompositeHealthContributor.fromMap(wrapped);
+        }
+        return contributor;
+    }
+
+    /** The indicator behind the sharing, or the contributor itself. */
+    public static HealthContributor unwrap(HealthContributor contributor) {
+        return contributor instanceof SharedHealthIndicator s ? s.getDelegate() : contributor;
+    }
+}
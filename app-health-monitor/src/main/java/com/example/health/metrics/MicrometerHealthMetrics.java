@@ -0,0 +1,113 @@
+package com.example.health.metrics;
+
+import com.example.health.engine.HealthResult;
+import com.example.health.engine.LeafResultListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes every leaf result of the evaluator to Micrometer:
+ * <ul>
+ *   <li>{@code app.health.probe} timer, tagged {@code component}, {@code type}, {@code method}
+ *       and {@code outcome} ({@code success}, {@code failure} or {@code timeout});</li>
+ *   <li>{@code app.health.status} gauge per {@code component}: 1 UP, 0 DOWN, -1 OUT_OF_SERVICE,
+ *       -2 UNKNOWN or anything else.</li>
+ * </ul>
+ * Meters are created on a component's first result and looked up by reference afterwards, so a
+ * steady-state recording allocates nothing.
+ */
+public class MicrometerHealthMetrics implements LeafResultListener {
+
+    public static final String TIMER = "app.health.probe";
+    public static final String GAUGE = "app.health.status";
+
+    private static final String[] OUTCOMES = {"success", "failure", "timeout"};
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, ComponentMeters> components = new ConcurrentHashMap<>();
+
+    public MicrometerHealthMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void onResult(String path, HealthResult result, long elapsedNanos) {
+        ComponentMeters meters = components.get(path);
+        if (meters == null) {
+            meters = components.computeIfAbsent(path, p -> new ComponentMeters(registry, p));
+        }
+        meters.status.set(statusValue(result.getStatus()));
+        if (elapsedNanos == NOT_PROBED) {
+            return; // probed by another replica; its latency is that replica's
+        }
+        String type = stringDetail(result, "type");
+        String method = stringDetail(result, "method");
+        meters.timers(type, method)[outcomeOf(result)].record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static int outcomeOf(HealthResult result) {
+        if (Boolean.TRUE.equals(result.getDetails().get("timedOut"))) return 2;
+        return Status.UP.equals(result.getStatus()) ? 0 : 1;
+    }
+
+    private static int statusValue(Status status) {
+        if (Status.UP.equals(status)) return 1;
+        if (Status.DOWN.equals(status)) return 0;
+        if (Status.OUT_OF_SERVICE.equals(status)) return -1;
+        return -2;
+    }
+
+    private static String stringDetail(HealthResult result, String key) {
+        return result.getDetails().get(key) instanceof String s ? s : NONE;
+    }
+
+    /** Meters of one component; timers by type, then method, then outcome index. */
+    private static final class ComponentMeters {
+        final MeterRegistry registry;
+        final String component;
+        final AtomicInteger status = new AtomicInteger(-2);
+        final ConcurrentHashMap<String, ConcurrentHashMap<String, Timer[]>> timers = new ConcurrentHashMap<>();
+
+        ComponentMeters(MeterRegistry registry, String component) {
+            this.registry = registry;
+            this.component = component;
+            Gauge.builder(GAUGE, status, AtomicInteger::get)
+                    .description("Health status of a component: 1 UP, 0 DOWN, -1 OUT_OF_SERVICE, -2 UNKNOWN")
+                    .tag("component", component)
+                    .register(registry);
+        }
+
+        Timer[] timers(String type, String method) {
+            ConcurrentHashMap<String, Timer[]> byMethod = timers.get(type);
+            if (byMethod == null) {
+                byMethod = timers.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+            }
+            Timer[] byOutcome = byMethod.get(method);
+            if (byOutcome == null) {
+                byOutcome = byMethod.computeIfAbsent(method, m -> register(type, m));
+            }
+            return byOutcome;
+        }
+
+        private Timer[] register(String type, String method) {
+            Timer[] out = new Timer[OUTCOMES.length];
+            for (int i = 0; i < OUTCOMES.length; i++) {
+                out[i] = Timer.builder(TIMER)
+                        .description("Duration of one health probe")
+                        .tag("component", component)
+                        .tag("type", type)
+                        .tag("method", method)
+                        .tag("outcome", OUTCOMES[i])
+                        .register(registry);
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.health.probe;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@link KafkaProbe} that completes without holding a thread: admin calls are issued together and
+ * the result stage completes when the last of them answers. In parallel mode the Kafka indicator
+ * uses {@link #probeAsync()} directly; {@link #probe()} blocks on it.
+ */
+public interface AsyncKafkaProbe extends KafkaProbe {
+
+    CompletionStage<Result> probeAsync();
+
+    @Override
+    default Result probe() throws Exception {
+        try {
+            return probeAsync().toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        }
+    }
+}
@@ -4,6 +4,13 @@ package com.example.health.probe;
 public interface DatabaseProbe {
     Result probe() throws Exception;
 
-    record Result(String product, String version) {}
+    /**
+     * {@code poolWaitMs} is the time spent borrowing a connection, {@code queryMs} the validation
+     * itself; both may be null for custom probes that do not measure them.
+     */
+    record Result(String product, String version, Long poolWaitMs, Long queryMs, String mode) {
+        public Result(String product, String version) {
+            this(product, version, null, null, null);
+        }
+    }
 }
-
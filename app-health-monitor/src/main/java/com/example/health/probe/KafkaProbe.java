@@ -1,13 +1,39 @@
 package com.example.health.probe;
 
+import java.util.List;
+
 /**
  * SPI to decouple the library from Kafka clients. Parent apps provide a bean
- * implementing this interface if they want Kafka health.
+ * implementing this interface if they want Kafka health; without one, an {@code Admin}
+ * bean is probed through {@link com.example.health.probe.impl.ReflectiveKafkaProbe}.
  */
 @FunctionalInterface
 public interface KafkaProbe {
     Result probe() throws Exception;
 
-    record Result(Integer nodeCount, String clusterId) {}
-}
+    /** {@code topics} holds one entry per configured critical topic; empty when none are checked. */
+    record Result(Integer nodeCount, String clusterId, List<TopicStatus> topics) {
+        public Result {
+            topics = topics == null ? List.of() : List.copyOf(topics);
+        }
+
+        public Result(Integer nodeCount, String clusterId) {
+            this(nodeCount, clusterId, List.of());
+        }
+    }
 
+    /**
+     * Partition health of one topic. A topic is unhealthy when it does not exist, has partitions
+     * without a leader, or has partitions whose in-sync replicas are below the configured minimum;
+     * under-replicated partitions alone are reported but do not fail the check.
+     */
+    record TopicStatus(String name, boolean exists, int partitions, int leaderless, int underReplicated, int underMinIsr) {
+        public static TopicStatus missing(String name) {
+            return new TopicStatus(name, false, 0, 0, 0, 0);
+        }
+
+        public boolean healthy() {
+            return exists && leaderless == 0 && underMinIsr == 0;
+        }
+    }
+}
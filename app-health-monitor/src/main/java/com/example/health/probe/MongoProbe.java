@@ -4,6 +4,10 @@ package com.example.health.probe;
 public interface MongoProbe {
     Result probe() throws Exception;
 
-    record Result(String databaseName, String firstCollection) {}
+    /** {@code firstCollection} is only known in listCollections mode; {@code mode} may be null for custom probes. */
+    record Result(String databaseName, String firstCollection, String mode) {
+        public Result(String databaseName, String firstCollection) {
+            this(databaseName, firstCollection, null);
+        }
+    }
 }
-
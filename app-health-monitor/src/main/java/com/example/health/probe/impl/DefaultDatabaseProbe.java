@@ -4,34 +4,99 @@ import com.example.health.probe.DatabaseProbe;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
 
+/**
+ * JDBC probe. Borrowing the connection and validating it are timed separately, so a saturated
+ * pool ({@code poolWaitMs}) can be told apart from a slow database ({@code queryMs}). Validation
+ * runs {@code validationQuery} or, in {@link Mode#IS_VALID}, the driver's own
+ * {@link Connection#isValid(int)} check. Product name and version are read once and cached.
+ */
 public class DefaultDatabaseProbe implements DatabaseProbe {
+
+    public enum Mode {
+        QUERY, IS_VALID;
+
+        /** Parses {@code query} or {@code isValid}; null or blank means QUERY. */
+        public static Mode of(String value) {
+            if (value == null || value.isBlank()) return QUERY;
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "query" -> QUERY;
+                case "isvalid", "is_valid" -> IS_VALID;
+                default -> throw new IllegalArgumentException("Unsupported db probe mode: " + value);
+            };
+        }
+
+        String label() {
+            return this == QUERY ? "query" : "isValid";
+        }
+    }
+
+    private record Metadata(String product, String version) {}
+
     private final DataSource dataSource;
     private final String validationQuery;
+    private final Mode mode;
+    private final int timeoutSeconds;
+    private volatile Metadata metadata; // read once, on the first successful probe
 
     public DefaultDatabaseProbe(DataSource dataSource, String validationQuery) {
+        this(dataSource, validationQuery, Mode.QUERY, Duration.ofSeconds(2));
+    }
+
+    public DefaultDatabaseProbe(DataSource dataSource, String validationQuery, Mode mode, Duration queryTimeout) {
         this.dataSource = dataSource;
         this.validationQuery = validationQuery;
+        this.mode = mode == null ? Mode.QUERY : mode;
+        this.timeoutSeconds = toSeconds(queryTimeout);
     }
 
     @Override
     public Result probe() throws Exception {
+        long start = System.nanoTime();
         try (Connection conn = dataSource.getConnection()) {
-            // Try a simple query; drivers may optimize validity checks otherwise
-            try (Statement st = conn.createStatement()) {
-                st.setQueryTimeout(2); // seconds
-                try (ResultSet rs = st.executeQuery(validationQuery)) {
-                    // Ensure we touch result set
-                    rs.next();
+            long borrowed = System.nanoTime();
+            if (mode == Mode.IS_VALID) {
+                if (!conn.isValid(timeoutSeconds)) {
+                    throw new SQLException("Connection.isValid(" + timeoutSeconds + ") returned false");
+                }
+            } else {
+                // Try a simple query; drivers may optimize validity checks otherwise
+                try (Statement st = conn.createStatement()) {
+                    st.setQueryTimeout(timeoutSeconds);
+                    try (ResultSet rs = st.executeQuery(validationQuery)) {
+                        // Ensure we touch result set
+                        rs.next();
+                    }
                 }
             }
-            var md = conn.getMetaData();
-            String product = md != null ? md.getDatabaseProductName() : null;
-            String version = md != null ? md.getDatabaseProductVersion() : null;
-            return new Result(product, version);
+            long validated = System.nanoTime();
+            Metadata md = metadataOf(conn);
+            return new Result(md.product(), md.version(),
+                    (borrowed - start) / 1_000_000, (validated - borrowed) / 1_000_000, mode.label());
         }
     }
-}
 
+    private Metadata metadataOf(Connection conn) throws SQLException {
+        Metadata md = metadata;
+        if (md == null) {
+            DatabaseMetaData meta = conn.getMetaData();
+            md = meta != null
+                    ? new Metadata(meta.getDatabaseProductName(), meta.getDatabaseProductVersion())
+                    : new Metadata(null, null);
+            metadata = md;
+        }
+        return md;
+    }
+
+    /** JDBC timeouts are whole seconds and 0 means none; round up so a sub-second budget still applies. */
+    private static int toSeconds(Duration timeout) {
+        if (timeout == null || timeout.isZero() || timeout.isNegative()) return 2;
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (timeout.toMillis() + 999) / 1000));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.health.probe.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/** Method lookup and handle creation shared by the reflective probes and stores. */
+public final class PublicMethods {
+    private PublicMethods() {}
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    /**
+     * {@code type.getMethod(...)} as declared on a public class or interface. Driver
+     * implementations (e.g. {@code MongoClientImpl}) are not public, so their own declarations
+     * cannot be unreflected; the same method on a public supertype can.
+     */
+    public static Method find(Class<?> type, String name, Class<?>... params) throws NoSuchMethodException {
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            Class<?> c = queue.poll();
+            if (Modifier.isPublic(c.getModifiers())) {
+                try {
+                    Method m = c.getMethod(name, params);
+                    if (Modifier.isPublic(m.getDeclaringClass().getModifiers())) {
+                        return m;
+                    }
+                } catch (NoSuchMethodException ignore) {
+                    // keep looking in supertypes
+                }
+            }
+            if (c.getSuperclass() != null) queue.add(c.getSuperclass());
+            queue.addAll(List.of(c.getInterfaces()));
+        }
+        throw new NoSuchMethodException(type.getName() + "." + name);
+    }
+
+    /** {@code (Object, Object...) -> Object} handle over a method taking {@code params} further arguments. */
+    public static MethodHandle handle(Method method, int params) throws IllegalAccessException {
+        MethodHandle mh = LOOKUP.unreflect(method);
+        return mh.asType(MethodType.genericMethodType(params + 1));
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.health.probe.impl;
+
+import com.example.health.probe.AsyncKafkaProbe;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Kafka probe over an {@code org.apache.kafka.clients.admin.Admin} bean without a compile-time
+ * client dependency. As with {@link ReflectiveMongoProbe}, every call is resolved once into
+ * {@link MethodHandle}s against the client's public types; a probe is a few handle invocations.
+ *
+ * <p>One probe issues {@code describeCluster} and, when critical topics are configured, a single
+ * batched {@code describeTopics} for all of them, before waiting on anything. {@code clusterId},
+ * {@code nodes} and the per-topic descriptions are awaited together through
+ * {@code KafkaFuture.toCompletionStage()} (Kafka clients 3.0+), so no thread is held while the
+ * brokers answer and the probe takes one round-trip rather than one per call.
+ */
+public class ReflectiveKafkaProbe implements AsyncKafkaProbe {
+
+    private final Object admin;
+    private final List<String> topics;
+    private final int minInSyncReplicas;
+    private final Object clusterOptions;       // DescribeClusterOptions with timeoutMs
+    private final Object topicOptions;         // DescribeTopicsOptions with timeoutMs; null without topics
+    private final MethodHandle describeCluster; // (admin, options) -> DescribeClusterResult
+    private final MethodHandle clusterId;       // (DescribeClusterResult) -> KafkaFuture<String>
+    private final MethodHandle nodes;           // (DescribeClusterResult) -> KafkaFuture<Collection<Node>>
+    private final MethodHandle describeTopics;  // (admin, Collection<String>, options) -> DescribeTopicsResult
+    private final MethodHandle topicFutures;    // (DescribeTopicsResult) -> Map<String, KafkaFuture<TopicDescription>>
+    private final MethodHandle toStage;         // (KafkaFuture) -> CompletionStage
+    private final MethodHandle partitions;      // (TopicDescription) -> List<TopicPartitionInfo>
+    private final MethodHandle leader;          // (TopicPartitionInfo) -> Node
+    private final MethodHandle isr;             // (TopicPartitionInfo) -> List<Node>
+    private final MethodHandle replicas;        // (TopicPartitionInfo) -> List<Node>
+    private final MethodHandle nodeIsEmpty;     // (Node) -> Boolean
+
+    private ReflectiveKafkaProbe(Object admin, List<String> topics, int minInSyncReplicas, Duration timeout)
+            throws ReflectiveOperationException {
+        this.admin = admin;
+        this.topics = topics == null ? List.of() : List.copyOf(topics);
+        this.minInSyncReplicas = Math.max(1, minInSyncReplicas);
+        Integer timeoutMs = timeout == null ? null : (int) Math.min(Integer.MAX_VALUE, Math.max(1, timeout.toMillis()));
+        Class<?> type = admin.getClass();
+        ClassLoader loader = type.getClassLoader();
+
+        Class<?> clusterOptionsType = Class.forName("org.apache.kafka.clients.admin.DescribeClusterOptions", false, loader);
+        this.clusterOptions = options(clusterOptionsType, timeoutMs);
+        Method cluster = PublicMethods.find(type, "describeCluster", clusterOptionsType);
+        this.describeCluster = PublicMethods.handle(cluster, 1);
+        this.clusterId = PublicMethods.handle(PublicMethods.find(cluster.getReturnType(), "clusterId"), 0);
+        this.nodes = PublicMethods.handle(PublicMethods.find(cluster.getReturnType(), "nodes"), 0);
+
+        Class<?> future = Class.forName("org.apache.kafka.common.KafkaFuture", false, loader);
+        this.toStage = PublicMethods.handle(PublicMethods.find(future, "toCompletionStage"), 0);
+        Class<?> node = Class.forName("org.apache.kafka.common.Node", false, loader);
+        this.nodeIsEmpty = PublicMethods.handle(PublicMethods.find(node, "isEmpty"), 0);
+
+        if (this.topics.isEmpty()) {
+            this.topicOptions = null;
+            this.describeTopics = null;
+            this.topicFutures = null;
+            this.partitions = null;
+            this.leader = null;
+            this.isr = null;
+            this.replicas = null;
+            return;
+        }
+        Class<?> topicOptionsType = Class.forName("org.apache.kafka.clients.admin.DescribeTopicsOptions", false, loader);
+        this.topicOptions = options(topicOptionsType, timeoutMs);
+        Method describe = PublicMethods.find(type, "describeTopics", Collection.class, topicOptionsType);
+        this.describeTopics = PublicMethods.handle(describe, 2);
+        Method byName;
+        try {
+            byName = PublicMethods.find(describe.getReturnType(), "topicNameValues");
+        } catch (NoSuchMethodException e) {
+            byName = PublicMethods.find(describe.getReturnType(), "values"); // clients before 3.1
+        }
+        this.topicFutures = PublicMethods.handle(byName, 0);
+        Class<?> description = Class.forName("org.apache.kafka.clients.admin.TopicDescription", false, loader);
+        this.partitions = PublicMethods.handle(PublicMethods.find(description, "partitions"), 0);
+        Class<?> partitionInfo = Class.forName("org.apache.kafka.common.TopicPartitionInfo", false, loader);
+        this.leader = PublicMethods.handle(PublicMethods.find(partitionInfo, "leader"), 0);
+        this.isr = PublicMethods.handle(PublicMethods.find(partitionInfo, "isr"), 0);
+        this.replicas = PublicMethods.handle(PublicMethods.find(partitionInfo, "replicas"), 0);
+    }
+
+    /**
+     * @param admin             an {@code org.apache.kafka.clients.admin.Admin} (e.g. {@code AdminClient})
+     * @param topics            critical topics whose partitions are checked; may be empty
+     * @param minInSyncReplicas partitions with fewer in-sync replicas fail the check
+     * @param timeout           sent to the brokers as the admin call timeout; null keeps the client default
+     */
+    public static ReflectiveKafkaProbe fromAdmin(Object admin, List<String> topics, int minInSyncReplicas, Duration timeout)
+            throws ReflectiveOperationException {
+        return new ReflectiveKafkaProbe(admin, topics, minInSyncReplicas, timeout);
+    }
+
+    @Override
+    public CompletionStage<Result> probeAsync() {
+        try {
+            // issue both calls before awaiting either
+            Object cluster = (Object) describeCluster.invokeExact(admin, clusterOptions);
+            Object described = topics.isEmpty() ? null
+                    : (Object) describeTopics.invokeExact(admin, (Object) topics, topicOptions);
+            CompletableFuture<String> id = stage((Object) clusterId.invokeExact(cluster));
+            CompletableFuture<Collection<?>> brokers = stage((Object) nodes.invokeExact(cluster));
+            CompletableFuture<Result> clusterResult = id.thenCombine(brokers, (clusterIdValue, nodeList) -> {
+                if (nodeList == null || nodeList.isEmpty()) {
+                    throw new IllegalStateException("Kafka cluster reachable but no active brokers");
+                }
+                return new Result(nodeList.size(), clusterIdValue);
+            });
+            if (described == null) {
+                return clusterResult;
+            }
+            CompletableFuture<List<TopicStatus>> topicResult = topicStatuses((Object) topicFutures.invokeExact(described));
+            return clusterResult.thenCombine(topicResult, (r, statuses) -> new Result(r.nodeCount(), r.clusterId(), statuses));
+        } catch (Throwable t) {
+            return CompletableFuture.failedFuture(t);
+        }
+    }
+
+    private CompletableFuture<List<TopicStatus>> topicStatuses(Object futures) throws Throwable {
+        Map<?, ?> byTopic = (Map<?, ?>) futures;
+        List<CompletableFuture<TopicStatus>> each = new ArrayList<>(topics.size());
+        for (String topic : topics) {
+            Object future = byTopic.get(topic);
+            if (future == null) {
+                each.add(CompletableFuture.completedFuture(TopicStatus.missing(topic)));
+                continue;
+            }
+            CompletableFuture<Object> description = stage(future);
+            each.add(description.handle((d, error) -> {
+                if (error != null) {
+                    Throwable cause = unwrap(error);
+                    if (isUnknownTopic(cause)) return TopicStatus.missing(topic);
+                    throw error instanceof CompletionException ce ? ce : new CompletionException(cause);
+                }
+                return status(topic, d);
+            }));
+        }
+        return CompletableFuture.allOf(each.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> each.stream().map(CompletableFuture::join).toList());
+    }
+
+    private TopicStatus status(String topic, Object description) {
+        try {
+            List<?> parts = (List<?>) (Object) partitions.invokeExact(description);
+            int leaderless = 0;
+            int underReplicated = 0;
+            int underMinIsr = 0;
+            for (Object p : parts) {
+                Object l = (Object) leader.invokeExact(p);
+                if (l == null || (Boolean) (Object) nodeIsEmpty.invokeExact(l)) leaderless++;
+                int inSync = ((List<?>) (Object) isr.invokeExact(p)).size();
+                if (inSync < ((List<?>) (Object) replicas.invokeExact(p)).size()) underReplicated++;
+                if (inSync < minInSyncReplicas) underMinIsr++;
+            }
+            return new TopicStatus(topic, true, parts.size(), leaderless, underReplicated, underMinIsr);
+        } catch (Throwable t) {
+            throw new CompletionException(t);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> stage(Object kafkaFuture) throws Throwable {
+        return ((CompletionStage<T>) (Object) toStage.invokeExact(kafkaFuture)).toCompletableFuture();
+    }
+
+    private static Object options(Class<?> type, Integer timeoutMs) throws ReflectiveOperationException {
+        Object options = type.getConstructor().newInstance();
+        if (timeoutMs != null) {
+            PublicMethods.find(type, "timeoutMs", Integer.class).invoke(options, timeoutMs);
+        }
+        return options;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable e = error;
+        while (e instanceof CompletionException && e.getCause() != null) e = e.getCause();
+        return e;
+    }
+
+    private static boolean isUnknownTopic(Throwable e) {
+        return e != null && e.getClass().getName().equals("org.apache.kafka.common.errors.UnknownTopicOrPartitionException");
+    }
+}
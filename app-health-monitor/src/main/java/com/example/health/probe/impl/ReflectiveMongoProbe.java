@@ -2,73 +2,155 @@ package com.example.health.probe.impl;
 
 import com.example.health.probe.MongoProbe;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
 
+/**
+ * Mongo probe without a compile-time driver dependency. The call chain (database lookup, then the
+ * probe call) is resolved once, when the probe is built, into {@link MethodHandle}s against the
+ * driver's public interfaces; a probe is a few direct handle invocations.
+ *
+ * <p>{@link Mode#PING} and {@link Mode#HELLO} run one server command through
+ * {@code MongoDatabase.runCommand}; {@link Mode#LIST_COLLECTIONS} (the original behaviour) reads the
+ * first collection name, which needs collection-list privileges and is slow on large databases.
+ */
 public class ReflectiveMongoProbe implements MongoProbe {
-    private final Object backendBean;
-    private final String databaseOverride;
-    private final Backend backend;
 
     public enum Backend { MONGO_TEMPLATE, MONGO_CLIENT }
 
-    private ReflectiveMongoProbe(Object backendBean, String databaseOverride, Backend backend) {
+    public enum Mode {
+        PING, HELLO, LIST_COLLECTIONS;
+
+        /** Parses {@code ping}, {@code hello} or {@code listCollections}; null or blank means LIST_COLLECTIONS. */
+        public static Mode of(String value) {
+            if (value == null || value.isBlank()) return LIST_COLLECTIONS;
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "ping" -> PING;
+                case "hello" -> HELLO;
+                case "listcollections", "list_collections" -> LIST_COLLECTIONS;
+                default -> throw new IllegalArgumentException("Unsupported mongo probe mode: " + value);
+            };
+        }
+
+        String label() {
+            return this == LIST_COLLECTIONS ? "listCollections" : name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Object backendBean;
+    private final Mode mode;
+    private final MethodHandle database;   // (Object backend) -> MongoDatabase
+    private final MethodHandle name;       // (Object database) -> String
+    private final MethodHandle operation;  // (Object database) -> command result, or first collection name
+    private final Object command;          // prebuilt command document; null for LIST_COLLECTIONS
+
+    private ReflectiveMongoProbe(Object backendBean, String databaseOverride, Backend backend, Mode mode)
+            throws ReflectiveOperationException {
         this.backendBean = backendBean;
-        this.databaseOverride = databaseOverride;
-        this.backend = backend;
+        this.mode = mode;
+        boolean override = databaseOverride != null && !databaseOverride.isBlank();
+        Class<?> type = backendBean.getClass();
+        MethodHandle db;
+        Class<?> databaseType;
+        if (backend == Backend.MONGO_TEMPLATE && override) {
+            // template.getMongoDatabaseFactory().getMongoDatabase(db)
+            Method factory = PublicMethods.find(type, "getMongoDatabaseFactory");
+            Method lookup = PublicMethods.find(factory.getReturnType(), "getMongoDatabase", String.class);
+            db = MethodHandles.filterReturnValue(
+                    PublicMethods.handle(factory, 0),
+                    MethodHandles.insertArguments(PublicMethods.handle(lookup, 1), 1, databaseOverride));
+            databaseType = lookup.getReturnType();
+        } else if (backend == Backend.MONGO_TEMPLATE) {
+            // template.getDb()
+            Method getDb = PublicMethods.find(type, "getDb");
+            db = PublicMethods.handle(getDb, 0);
+            databaseType = getDb.getReturnType();
+        } else {
+            Method getDatabase = PublicMethods.find(type, "getDatabase", String.class);
+            db = MethodHandles.insertArguments(PublicMethods.handle(getDatabase, 1), 1, override ? databaseOverride : "admin");
+            databaseType = getDatabase.getReturnType();
+        }
+        this.database = db;
+        this.name = PublicMethods.handle(PublicMethods.find(databaseType, "getName"), 0);
+
+        if (mode == Mode.LIST_COLLECTIONS) {
+            Method list = PublicMethods.find(databaseType, "listCollectionNames");
+            this.operation = MethodHandles.filterReturnValue(PublicMethods.handle(list, 0), firstOf(list.getReturnType()));
+            this.command = null;
+        } else {
+            ClassLoader loader = databaseType.getClassLoader();
+            Class<?> bson = Class.forName("org.bson.conversions.Bson", false, loader);
+            Class<?> document = Class.forName("org.bson.Document", false, loader);
+            this.command = document.getConstructor(String.class, Object.class)
+                    .newInstance(mode == Mode.PING ? "ping" : "hello", 1);
+            this.operation = MethodHandles.insertArguments(
+                    PublicMethods.handle(PublicMethods.find(databaseType, "runCommand", bson), 1), 1, command);
+        }
     }
 
-    public static ReflectiveMongoProbe fromMongoTemplate(Object mongoTemplate, String dbOverride) {
-        return new ReflectiveMongoProbe(mongoTemplate, dbOverride, Backend.MONGO_TEMPLATE);
+    public static ReflectiveMongoProbe fromMongoTemplate(Object mongoTemplate, String dbOverride)
+            throws ReflectiveOperationException {
+        return fromMongoTemplate(mongoTemplate, dbOverride, Mode.LIST_COLLECTIONS);
     }
 
-    public static ReflectiveMongoProbe fromMongoClient(Object mongoClient, String dbOverride) {
-        return new ReflectiveMongoProbe(mongoClient, dbOverride, Backend.MONGO_CLIENT);
+    public static ReflectiveMongoProbe fromMongoTemplate(Object mongoTemplate, String dbOverride, Mode mode)
+            throws ReflectiveOperationException {
+        return new ReflectiveMongoProbe(mongoTemplate, dbOverride, Backend.MONGO_TEMPLATE, mode);
+    }
+
+    public static ReflectiveMongoProbe fromMongoClient(Object mongoClient, String dbOverride)
+            throws ReflectiveOperationException {
+        return fromMongoClient(mongoClient, dbOverride, Mode.LIST_COLLECTIONS);
+    }
+
+    public static ReflectiveMongoProbe fromMongoClient(Object mongoClient, String dbOverride, Mode mode)
+            throws ReflectiveOperationException {
+        return new ReflectiveMongoProbe(mongoClient, dbOverride, Backend.MONGO_CLIENT, mode);
     }
 
     @Override
     public Result probe() throws Exception {
-        Object mongoDatabase;
-        if (backend == Backend.MONGO_TEMPLATE) {
-            if (databaseOverride != null && !databaseOverride.isBlank()) {
-                // template.getMongoDatabaseFactory().getMongoDatabase(db)
-                Object factory = invoke(backendBean, "getMongoDatabaseFactory");
-                mongoDatabase = invoke(factory, "getMongoDatabase", new Class[]{String.class}, new Object[]{databaseOverride});
-            } else {
-                // template.getDb()
-                mongoDatabase = invoke(backendBean, "getDb");
-            }
-        } else { // MONGO_CLIENT
-            String db = (databaseOverride != null && !databaseOverride.isBlank()) ? databaseOverride : "admin";
-            mongoDatabase = invoke(backendBean, "getDatabase", new Class[]{String.class}, new Object[]{db});
-        }
-
-        String dbName = String.valueOf(invoke(mongoDatabase, "getName"));
-        Object iterable = invoke(mongoDatabase, "listCollectionNames");
-        String first = null;
         try {
-            Object f = invoke(iterable, "first");
-            first = (f == null) ? null : String.valueOf(f);
-        } catch (NoSuchMethodException ignore) {
-            // Fallback: iterator().hasNext() ? next() : null
-            Object it = invoke(iterable, "iterator");
-            boolean hasNext = (Boolean) invoke(it, "hasNext");
-            if (hasNext) {
-                Object n = invoke(it, "next");
-                first = (n == null) ? null : String.valueOf(n);
+            Object db = (Object) database.invokeExact(backendBean);
+            String dbName = String.valueOf((Object) name.invokeExact(db));
+            Object out = (Object) operation.invokeExact(db);
+            if (mode == Mode.LIST_COLLECTIONS) {
+                return new Result(dbName, out == null ? null : String.valueOf(out), mode.label());
+            }
+            if (out instanceof Map<?, ?> reply && !isOk(reply.get("ok"))) {
+                throw new IllegalStateException(mode.label() + " returned ok=" + reply.get("ok"));
             }
+            return new Result(dbName, null, mode.label());
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
         }
+    }
 
-        return new Result(dbName, first);
+    private static boolean isOk(Object ok) {
+        return ok instanceof Number n ? n.doubleValue() == 1.0 : Boolean.TRUE.equals(ok);
     }
 
-    private Object invoke(Object target, String method) throws Exception {
-        Method m = target.getClass().getMethod(method);
-        return m.invoke(target);
+    /** {@code (Object iterable) -> Object first} via {@code first()}, or {@code iterator()} on older drivers. */
+    private static MethodHandle firstOf(Class<?> iterableType) throws ReflectiveOperationException {
+        try {
+            return PublicMethods.handle(PublicMethods.find(iterableType, "first"), 0);
+        } catch (NoSuchMethodException e) {
+            MethodHandle iterator = PublicMethods.handle(Iterable.class.getMethod("iterator"), 0);
+            MethodHandle next = MethodHandles.lookup().findStatic(ReflectiveMongoProbe.class, "nextOrNull",
+                    MethodType.methodType(Object.class, Object.class));
+            return MethodHandles.filterReturnValue(iterator, next);
+        }
     }
 
-    private Object invoke(Object target, String method, Class<?>[] paramTypes, Object[] args) throws Exception {
-        Method m = target.getClass().getMethod(method, paramTypes);
-        return m.invoke(target, args);
+    private static Object nextOrNull(Object iterator) {
+        Iterator<?> it = (Iterator<?>) iterator;
+        return it.hasNext() ? it.next() : null;
     }
 }
-
@@ -0,0 +1,20 @@
+package com.example.health.reactive;
+
+import com.example.health.engine.DerivedHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * A {@link DerivedHealthIndicator} in a reactive tree. {@link ReactiveHealthEvaluator} derives it
+ * from the siblings' results; {@link #health()} (used by anyone else) computes it on its own.
+ */
+public record DerivedReactiveHealthIndicator(DerivedHealthIndicator delegate, Scheduler scheduler)
+        implements ReactiveHealthIndicator {
+
+    @Override
+    public Mono<Health> health() {
+        return Mono.fromCallable(delegate::health).subscribeOn(scheduler);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.health.reactive;
+
+import com.example.health.engine.AsyncHealthIndicator;
+import com.example.health.engine.DerivedHealthIndicator;
+import com.example.health.engine.SinglePassHealthContributor;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.CompositeReactiveHealthContributor;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.ReactiveHealthContributor;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns the blocking {@code custom} tree into {@link ReactiveHealthContributor}s. Blocking
+ * indicators (the DB, Mongo and Kafka SPI probes, RestClient HTTP probes) run on the given
+ * bounded elastic scheduler, never on an event loop; {@link AsyncHealthIndicator}s are
+ * subscribed to directly and hold no thread at all.
+ */
+public final class ReactiveHealthContributors {
+    private ReactiveHealthContributors() {}
+
+    public static ReactiveHealthContributor adapt(HealthContributor contributor, Scheduler blocking) {
+        HealthContributor target = SinglePassHealthContributor.unwrap(contributor);
+        if (target instanceof CompositeHealthContributor composite) {
+            Map<String, ReactiveHealthContributor> children = new LinkedHashMap<>();
+            composite.forEach(named -> children.put(named.getName(), adapt(named.getContributor(), blocking)));
+            return CompositeReactiveHealthContributor.fromMap(children);
+        }
+        if (target instanceof DerivedHealthIndicator derived) {
+            return new DerivedReactiveHealthIndicator(derived, blocking);
+        }
+        if (target instanceof AsyncHealthIndicator async) {
+            return (ReactiveHealthIndicator) () -> Mono.fromFuture(async::healthAsync);
+        }
+        if (target instanceof HealthIndicator indicator) {
+            return (ReactiveHealthIndicator) () -> Mono.fromCallable(indicator::health).subscribeOn(blocking);
+        }
+        throw new IllegalArgumentException("Unsupported contributor: " + target.getClass().getName());
+    }
+}
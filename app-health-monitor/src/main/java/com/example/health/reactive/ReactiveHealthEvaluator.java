@@ -0,0 +1,135 @@
+package com.example.health.reactive;
+
+import com.example.health.engine.DerivedHealthIndicator;
+import com.example.health.engine.HealthEvaluator;
+import com.example.health.engine.HealthResult;
+import org.springframework.boot.actuate.health.CompositeReactiveHealthContributor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.NamedContributor;
+import org.springframework.boot.actuate.health.ReactiveHealthContributor;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Reactive counterpart of {@link HealthEvaluator}: every leaf of a {@link ReactiveHealthContributor}
+ * tree is subscribed to at once and the result is the same immutable {@link HealthResult}. Leaves
+ * get the same budgets (per component, capped by the whole evaluation); a leaf that misses its
+ * budget is cancelled and reported UNKNOWN with {@code timedOut=true}. Derived children are
+ * computed from their siblings, and every leaf is recorded through the blocking evaluator so that
+ * latency percentiles and metrics listeners behave identically.
+ */
+public class ReactiveHealthEvaluator {
+
+    private final HealthEvaluator recorder;
+    private final Function<String, Duration> componentTimeout;
+    private final Duration timeout;
+
+    public ReactiveHealthEvaluator(HealthEvaluator recorder, Function<String, Duration> componentTimeout, Duration timeout) {
+        this.recorder = recorder;
+        this.componentTimeout = componentTimeout;
+        this.timeout = timeout;
+    }
+
+    public Mono<HealthResult> evaluate(ReactiveHealthContributor contributor) {
+        return Mono.defer(() -> evaluate(null, "", contributor, System.nanoTime() + nanosOf(timeout)));
+    }
+
+    /**
+     * Evaluates only the node at {@code path} below {@code root}, as
+     * {@link HealthEvaluator#evaluate(org.springframework.boot.actuate.health.HealthContributor, List)} does;
+     * empty if {@code root} has no such node.
+     */
+    public Mono<HealthResult> evaluate(ReactiveHealthContributor root, List<String> path) {
+        if (path.isEmpty()) {
+            return evaluate(root);
+        }
+        ReactiveHealthContributor node = root;
+        for (String segment : path) {
+            node = node instanceof CompositeReactiveHealthContributor composite ? composite.getContributor(segment) : null;
+            if (node == null) {
+                return Mono.empty();
+            }
+        }
+        if (node instanceof DerivedReactiveHealthIndicator) {
+            return evaluate(root).mapNotNull(result -> result.find(path));
+        }
+        ReactiveHealthContributor target = node;
+        return Mono.defer(() -> evaluate(path.get(0), String.join(".", path), target, System.nanoTime() + nanosOf(timeout)));
+    }
+
+    private Mono<HealthResult> evaluate(String component, String path, ReactiveHealthContributor contributor, long deadline) {
+        if (contributor instanceof CompositeReactiveHealthContributor composite) {
+            List<String> names = new ArrayList<>();
+            List<Mono<HealthResult>> evaluated = new ArrayList<>();
+            Map<String, DerivedHealthIndicator> derived = new LinkedHashMap<>();
+            for (NamedContributor<ReactiveHealthContributor> child : composite) {
+                names.add(child.getName());
+                if (child.getContributor() instanceof DerivedReactiveHealthIndicator d) {
+                    derived.put(child.getName(), d.delegate());
+                } else {
+                    String owner = component != null ? component : child.getName();
+                    evaluated.add(evaluate(owner, childPath(path, child.getName()), child.getContributor(), deadline));
+                }
+            }
+            return Flux.mergeSequential(evaluated).collectList().map(results -> {
+                Map<String, HealthResult> children = new LinkedHashMap<>();
+                int next = 0;
+                for (String name : names) {
+                    children.put(name, derived.containsKey(name) ? null : results.get(next++)); // keeps declaration order
+                }
+                return HealthEvaluator.withDerived(children, derived, System.currentTimeMillis());
+            });
+        }
+        if (contributor instanceof ReactiveHealthIndicator indicator) {
+            return leaf(component, path, indicator, deadline);
+        }
+        return Mono.just(HealthResult.leaf(Status.UNKNOWN, Map.of(), System.currentTimeMillis()));
+    }
+
+    private Mono<HealthResult> leaf(String component, String path, ReactiveHealthIndicator indicator, long deadline) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            long budget = Math.max(1, Math.min(nanosOf(componentTimeout.apply(component)), deadline - start));
+            Mono<Health> health;
+            try {
+                health = indicator.health();
+            } catch (Exception e) {
+                health = Mono.error(e);
+            }
+            return health
+                    .map(h -> HealthResult.leaf(h, System.currentTimeMillis()))
+                    .defaultIfEmpty(HealthResult.leaf(Status.UNKNOWN, Map.of("error", "nullResult"), System.currentTimeMillis()))
+                    .timeout(Duration.ofNanos(budget))
+                    .onErrorResume(TimeoutException.class, e -> Mono.just(timedOut(System.nanoTime() - start)))
+                    .onErrorResume(e -> Mono.just(HealthResult.leaf(Status.DOWN, Map.of(
+                            "errorKind", e.getClass().getSimpleName(),
+                            "error", String.valueOf(e.getMessage())), System.currentTimeMillis())))
+                    .map(result -> recorder.recordLeaf(path, result, System.nanoTime() - start));
+        });
+    }
+
+    private static HealthResult timedOut(long elapsedNanos) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("timedOut", true);
+        details.put("latencyMs", elapsedNanos / 1_000_000);
+        return HealthResult.leaf(Status.UNKNOWN, details, System.currentTimeMillis());
+    }
+
+    private static String childPath(String path, String name) {
+        return path.isEmpty() ? name : path + "." + name;
+    }
+
+    private static long nanosOf(Duration d) {
+        return (d == null || d.isNegative() || d.isZero()) ? Long.MAX_VALUE / 4 : d.toNanos();
+    }
+}
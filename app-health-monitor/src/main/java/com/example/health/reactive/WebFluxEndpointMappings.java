@@ -0,0 +1,155 @@
+package com.example.health.reactive;
+
+import com.example.health.indicator.EndpointDescriptorIndex;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Mappings of a WebFlux application for {@link EndpointDescriptorIndex}: annotated handlers from
+ * the WebFlux {@link RequestMappingHandlerMapping} and routes of functional {@link RouterFunction}s.
+ * Routes are read with the router's own visitor; nested routes get their parents' path prefixes,
+ * and predicates that are not paths or methods (headers, content types) are left out.
+ */
+public final class WebFluxEndpointMappings {
+    private WebFluxEndpointMappings() {}
+
+    public static Supplier<Collection<EndpointDescriptorIndex.Mapping>> of(RequestMappingHandlerMapping mapping,
+                                                                          Supplier<? extends Collection<RouterFunction<?>>> routers) {
+        return () -> {
+            List<EndpointDescriptorIndex.Mapping> out = new ArrayList<>();
+            if (mapping != null) {
+                mapping.getHandlerMethods().forEach((info, handler) -> out.add(mappingOf(info, handler)));
+            }
+            for (RouterFunction<?> router : routers.get()) {
+                router.accept(new RouteCollector(out));
+            }
+            return out;
+        };
+    }
+
+    private static EndpointDescriptorIndex.Mapping mappingOf(RequestMappingInfo info, HandlerMethod method) {
+        Set<String> patterns = new LinkedHashSet<>();
+        info.getPatternsCondition().getPatterns().forEach(p -> patterns.add(p.getPatternString()));
+        Set<String> methods = new LinkedHashSet<>();
+        info.getMethodsCondition().getMethods().forEach(m -> methods.add(m.name()));
+        return new EndpointDescriptorIndex.Mapping(patterns, methods,
+                method.getBeanType().getSimpleName() + "." + method.getMethod().getName(), false);
+    }
+
+    /** Walks a router function; one mapping per route. */
+    private static final class RouteCollector implements RouterFunctions.Visitor {
+        private final List<EndpointDescriptorIndex.Mapping> out;
+        private final Deque<String> prefixes = new ArrayDeque<>();
+
+        RouteCollector(List<EndpointDescriptorIndex.Mapping> out) {
+            this.out = out;
+        }
+
+        @Override
+        public void startNested(RequestPredicate predicate) {
+            PredicateCollector p = PredicateCollector.of(predicate);
+            prefixes.push(prefix() + (p.paths.isEmpty() ? "" : p.paths.get(0)));
+        }
+
+        @Override
+        public void endNested(RequestPredicate predicate) {
+            prefixes.pop();
+        }
+
+        @Override
+        public void route(RequestPredicate predicate, HandlerFunction<?> handlerFunction) {
+            PredicateCollector p = PredicateCollector.of(predicate);
+            Set<String> patterns = new LinkedHashSet<>();
+            if (p.paths.isEmpty()) {
+                patterns.add(prefix().isEmpty() ? "/**" : prefix());
+            } else {
+                p.paths.forEach(path -> patterns.add(prefix() + path));
+            }
+            out.add(new EndpointDescriptorIndex.Mapping(patterns, p.methods, handlerName(handlerFunction), false));
+        }
+
+        @Override
+        public void resources(Function<ServerRequest, Mono<Resource>> lookupFunction) {
+            out.add(new EndpointDescriptorIndex.Mapping(List.of(prefix() + "/**"), List.of("GET", "HEAD"), "resources", false));
+        }
+
+        @Override
+        public void attributes(Map<String, Object> attributes) {
+            // not part of a descriptor
+        }
+
+        @Override
+        public void unknown(RouterFunction<?> routerFunction) {
+            // custom router implementations cannot be introspected
+        }
+
+        private String prefix() {
+            return prefixes.isEmpty() ? "" : prefixes.peek();
+        }
+
+        private static String handlerName(HandlerFunction<?> handler) {
+            Class<?> type = handler.getClass();
+            // lambdas and method references have generated class names; report the declaring class
+            String name = type.getSimpleName();
+            int lambda = name.indexOf("$$Lambda");
+            return lambda > 0 ? name.substring(0, lambda) + ".route" : name;
+        }
+    }
+
+    /** Paths and methods of one request predicate; {@code and}/{@code or} structure is flattened. */
+    private static final class PredicateCollector implements RequestPredicates.Visitor {
+        final List<String> paths = new ArrayList<>();
+        final Set<String> methods = new LinkedHashSet<>();
+        private int negated;
+
+        static PredicateCollector of(RequestPredicate predicate) {
+            PredicateCollector c = new PredicateCollector();
+            predicate.accept(c);
+            return c;
+        }
+
+        @Override
+        public void method(Set<HttpMethod> httpMethods) {
+            if (negated == 0) httpMethods.forEach(m -> methods.add(m.name()));
+        }
+
+        @Override
+        public void path(String pattern) {
+            if (negated == 0) paths.add(pattern);
+        }
+
+        @Override public void pathExtension(String extension) {}
+        @Override public void header(String name, String value) {}
+        @Override public void queryParam(String name, String value) {}
+        @Override public void startAnd() {}
+        @Override public void and() {}
+        @Override public void endAnd() {}
+        @Override public void startOr() {}
+        @Override public void or() {}
+        @Override public void endOr() {}
+        @Override public void startNegate() { negated++; }
+        @Override public void endNegate() { negated--; }
+        @Override public void unknown(RequestPredicate predicate) {}
+    }
+}
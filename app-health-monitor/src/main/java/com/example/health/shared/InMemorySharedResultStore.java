@@ -0,0 +1,48 @@
+package com.example.health.shared;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Store within one JVM: for tests, local load runs and single-instance deployments. Several
+ * {@link ResultSharing} instances (one per simulated replica) can share one store.
+ */
+public class InMemorySharedResultStore implements SharedResultStore {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Entry read(String key) {
+        return entries.get(key);
+    }
+
+    @Override
+    public boolean tryAcquire(String key, String owner, long leaseUntil, long now) {
+        Entry next = entries.compute(key, (k, e) -> {
+            if (e == null) return new Entry(owner, leaseUntil, null, 0);
+            if (e.owner().equals(owner) || e.leaseUntil() <= now) {
+                return new Entry(owner, leaseUntil, e.result(), e.publishedAt());
+            }
+            return e;
+        });
+        return next.owner().equals(owner);
+    }
+
+    @Override
+    public boolean publish(String key, String owner, long leaseUntil, Map<String, Object> result, long now) {
+        boolean[] stored = {false};
+        entries.computeIfPresent(key, (k, e) -> {
+            if (!e.owner().equals(owner)) return e;
+            stored[0] = true;
+            return new Entry(owner, leaseUntil, Collections.unmodifiableMap(new LinkedHashMap<>(result)), now);
+        });
+        return stored[0];
+    }
+
+    /** Forgets every lease and result. */
+    public void clear() {
+        entries.clear();
+    }
+}
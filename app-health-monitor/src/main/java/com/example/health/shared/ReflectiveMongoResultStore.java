@@ -0,0 +1,154 @@
+package com.example.health.shared;
+
+import com.example.health.probe.impl.PublicMethods;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link SharedResultStore} in a collection of the application's {@code MongoTemplate} database,
+ * without a compile-time driver dependency; as in
+ * {@link com.example.health.probe.impl.ReflectiveMongoProbe}, the calls are resolved once into
+ * {@link MethodHandle}s. One document per key:
+ * {@code {_id: key, owner, leaseUntil, publishedAt, result}}.
+ *
+ * <p>A lease is taken with one upsert filtered on "expired or already mine": when another replica
+ * holds an unexpired lease the filter matches nothing and the upsert collides with the existing
+ * {@code _id}; the driver's duplicate key error (code 11000) is reported as not acquired. Publishing is an update filtered on the
+ * owner, so a replica that lost its lease cannot overwrite the new owner's result.
+ */
+public class ReflectiveMongoResultStore implements SharedResultStore {
+
+    private final Object collection;          // MongoCollection<Document>
+    private final MethodHandle newDocument;   // (Map) -> Document
+    private final MethodHandle find;          // (collection, filter) -> FindIterable
+    private final MethodHandle first;         // (FindIterable) -> Document
+    private final MethodHandle updateOne;     // (collection, filter, update, options) -> UpdateResult
+    private final MethodHandle matchedCount;  // (UpdateResult) -> Long
+    private final MethodHandle upsertedId;    // (UpdateResult) -> BsonValue
+    private final Object upsert;              // UpdateOptions().upsert(true)
+    private final Object plain;               // UpdateOptions()
+    private final Class<?> mongoException;    // com.mongodb.MongoException
+    private final MethodHandle errorCode;     // (MongoException) -> Integer
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private ReflectiveMongoResultStore(Object mongoTemplate, String collectionName) throws ReflectiveOperationException {
+        Class<?> type = mongoTemplate.getClass();
+        Method getCollection = PublicMethods.find(type, "getCollection", String.class);
+        this.collection = getCollection.invoke(mongoTemplate, collectionName);
+        Class<?> collectionType = getCollection.getReturnType();
+        ClassLoader loader = type.getClassLoader();
+        Class<?> bson = Class.forName("org.bson.conversions.Bson", false, loader);
+        Class<?> document = Class.forName("org.bson.Document", false, loader);
+        Class<?> options = Class.forName("com.mongodb.client.model.UpdateOptions", false, loader);
+
+        this.newDocument = MethodHandles.publicLookup()
+                .findConstructor(document, MethodType.methodType(void.class, Map.class))
+                .asType(MethodType.methodType(Object.class, Object.class));
+        Method findMethod = PublicMethods.find(collectionType, "find", bson);
+        this.find = PublicMethods.handle(findMethod, 1);
+        this.first = PublicMethods.handle(PublicMethods.find(findMethod.getReturnType(), "first"), 0);
+        Method update = PublicMethods.find(collectionType, "updateOne", bson, bson, options);
+        this.updateOne = PublicMethods.handle(update, 3);
+        this.matchedCount = PublicMethods.handle(PublicMethods.find(update.getReturnType(), "getMatchedCount"), 0);
+        this.upsertedId = PublicMethods.handle(PublicMethods.find(update.getReturnType(), "getUpsertedId"), 0);
+        this.plain = options.getConstructor().newInstance();
+        Object withUpsert = options.getConstructor().newInstance();
+        PublicMethods.find(options, "upsert", boolean.class).invoke(withUpsert, true);
+        this.upsert = withUpsert;
+        this.mongoException = Class.forName("com.mongodb.MongoException", false, loader);
+        this.errorCode = PublicMethods.handle(PublicMethods.find(mongoException, "getCode"), 0);
+    }
+
+    /** Uses {@code collection} in the template's default database. */
+    public static ReflectiveMongoResultStore fromMongoTemplate(Object mongoTemplate, String collection)
+            throws ReflectiveOperationException {
+        return new ReflectiveMongoResultStore(mongoTemplate, collection);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Entry read(String key) {
+        try {
+            Object found = (Object) first.invokeExact((Object) find.invokeExact(collection, doc("_id", key)));
+            if (!(found instanceof Map<?, ?> d)) {
+                return null;
+            }
+            Object result = d.get("result");
+            return new Entry(String.valueOf(d.get("owner")), longOf(d.get("leaseUntil")),
+                    result instanceof Map<?, ?> m ? (Map<String, Object>) m : null, longOf(d.get("publishedAt")));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(String key, String owner, long leaseUntil, long now) {
+        try {
+            Object filter = doc("_id", key, "$or", List.of(
+                    doc("leaseUntil", doc("$lte", now)),
+                    doc("owner", owner)));
+            Object update = doc("$set", doc("owner", owner, "leaseUntil", leaseUntil));
+            Object result = (Object) updateOne.invokeExact(collection, filter, update, upsert);
+            return (Long) (Object) matchedCount.invokeExact(result) > 0 || (Object) upsertedId.invokeExact(result) != null;
+        } catch (RuntimeException e) {
+            if (isDuplicateKey(e)) {
+                return false; // another replica holds the lease
+            }
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public boolean publish(String key, String owner, long leaseUntil, Map<String, Object> result, long now) {
+        try {
+            Object filter = doc("_id", key, "owner", owner);
+            Object update = doc("$set", doc("leaseUntil", leaseUntil, "publishedAt", now, "result", result));
+            Object out = (Object) updateOne.invokeExact(collection, filter, update, plain);
+            return (Long) (Object) matchedCount.invokeExact(out) > 0;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /** MongoWriteException or DuplicateKeyException with code 11000, possibly wrapped. */
+    private boolean isDuplicateKey(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (mongoException.isInstance(t)) {
+                try {
+                    return (Integer) (Object) errorCode.invokeExact((Object) t) == DUPLICATE_KEY;
+                } catch (Throwable ignore) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** A {@code Document} of alternating keys and values. */
+    private Object doc(Object... keysAndValues) throws Throwable {
+        Map<String, Object> m = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            m.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return (Object) newDocument.invokeExact((Object) m);
+    }
+
+    private static long longOf(Object value) {
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+}
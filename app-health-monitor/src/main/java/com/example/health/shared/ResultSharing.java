@@ -0,0 +1,178 @@
+package com.example.health.shared;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Lets replicas of one application share the results of probes of shared dependencies. For each
+ * key (a probing leaf, e.g. {@code orders:external.httpbin}) one replica holds a lease and probes;
+ * the others read the result it published instead of probing themselves.
+ *
+ * <p>Per evaluation, a replica that is not the owner reads the key once. It takes over only when
+ * the lease has expired, i.e. the owner stopped probing. The owner remembers its lease locally and
+ * renews it with every publish, so it needs one write per probe. A shared result older than
+ * {@code maxAge}, or any store failure, makes the replica probe locally without publishing. If the
+ * store is down, every replica is back to probing on its own.
+ */
+public class ResultSharing {
+    private static final Logger log = LoggerFactory.getLogger(ResultSharing.class);
+
+    /** What to do for one evaluation of a key. */
+    public sealed interface Decision permits Owner, Shared, Local {}
+
+    /** This replica holds the lease: probe and {@link #publish}. */
+    public record Owner(String key) implements Decision {}
+
+    /** Another replica's recent result; report it without probing. */
+    public record Shared(Health health) implements Decision {}
+
+    /** Probe without publishing: no usable shared result and no lease. */
+    public record Local() implements Decision {}
+
+    private static final Local LOCAL = new Local();
+
+    private final SharedResultStore store;
+    private final String instanceId;
+    private final String group;
+    private final long leaseTtlMs;
+    private final long maxAgeMs;
+    private final ConcurrentHashMap<String, Long> ownedUntil = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    /**
+     * @param group      replicas with the same group share results (usually the application name)
+     * @param instanceId this replica's id, unique within the group
+     * @param leaseTtl   how long a lease lasts without renewal; longer than the owner's probe interval
+     * @param maxAge     shared results older than this are not used
+     * @param executor   runs store calls of non-blocking indicators; owned by the caller
+     */
+    public ResultSharing(SharedResultStore store, String group, String instanceId, Duration leaseTtl, Duration maxAge,
+                         ExecutorService executor) {
+        this.store = Objects.requireNonNull(store, "store");
+        this.group = Objects.requireNonNull(group, "group");
+        this.instanceId = Objects.requireNonNull(instanceId, "instanceId");
+        this.leaseTtlMs = Math.max(1, leaseTtl.toMillis());
+        this.maxAgeMs = Math.max(1, maxAge.toMillis());
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /** Store key of a leaf path within this group. */
+    public String keyOf(String path) {
+        return group + ":" + path;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /** Where store calls made on behalf of non-blocking indicators run. */
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    /** Blocking: reads and possibly leases {@code key} in the store. */
+    public Decision decide(String key) {
+        long now = System.currentTimeMillis();
+        Long owned = ownedUntil.get(key);
+        if (owned != null && owned > now) {
+            return new Owner(key);
+        }
+        try {
+            SharedResultStore.Entry e = store.read(key);
+            if (e == null || e.leaseUntil() <= now || instanceId.equals(e.owner())) {
+                if (store.tryAcquire(key, instanceId, now + leaseTtlMs, now)) {
+                    ownedUntil.put(key, now + leaseTtlMs);
+                    return new Owner(key);
+                }
+                e = store.read(key); // another replica was faster
+            }
+            if (e != null && e.result() != null && now - e.publishedAt() <= maxAgeMs) {
+                return new Shared(healthOf(e, now));
+            }
+            return LOCAL;
+        } catch (RuntimeException ex) {
+            storeFailed("read", key, ex);
+            return LOCAL;
+        }
+    }
+
+    /** Blocking: stores the owner's fresh result; returns it marked as shared. */
+    public Health publish(String key, Health health) {
+        long now = System.currentTimeMillis();
+        try {
+            if (store.publish(key, instanceId, now + leaseTtlMs, plain(health), now)) {
+                ownedUntil.put(key, now + leaseTtlMs);
+            } else {
+                ownedUntil.remove(key);
+            }
+        } catch (RuntimeException ex) {
+            ownedUntil.remove(key);
+            storeFailed("publish", key, ex);
+        }
+        return Health.status(health.getStatus()).withDetails(health.getDetails()).withDetail("shared", "owner").build();
+    }
+
+    /** A locally probed result that was not shared. */
+    public Health local(Health health) {
+        return Health.status(health.getStatus()).withDetails(health.getDetails()).withDetail("shared", "local").build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Health healthOf(SharedResultStore.Entry e, long now) {
+        Map<String, Object> r = e.result();
+        Health.Builder b = Health.status(new Status(String.valueOf(r.get("status"))));
+        if (r.get("details") instanceof Map<?, ?> details) {
+            b.withDetails((Map<String, ?>) details);
+        }
+        return b.withDetail("shared", "replica")
+                .withDetail("sharedBy", e.owner())
+                .withDetail("sharedAgeMs", Math.max(0, now - e.publishedAt()))
+                .build();
+    }
+
+    /** Status and details as plain maps, lists, strings, numbers and booleans, which any store can hold. */
+    static Map<String, Object> plain(Health health) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("status", health.getStatus().getCode());
+        out.put("details", plainValue(health.getDetails()));
+        return out;
+    }
+
+    private static Object plainValue(Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Map<?, ?> m) {
+            Map<String, Object> out = new LinkedHashMap<>();
+            m.forEach((k, v) -> out.put(String.valueOf(k), plainValue(v)));
+            return out;
+        }
+        if (value instanceof Collection<?> c) {
+            List<Object> out = new ArrayList<>(c.size());
+            c.forEach(v -> out.add(plainValue(v)));
+            return out;
+        }
+        return String.valueOf(value);
+    }
+
+    private void storeFailed(String op, String key, RuntimeException ex) {
+        log.atDebug()
+                .addKeyValue("event", "app_health_shared_store_failed")
+                .addKeyValue("op", op)
+                .addKeyValue("key", key)
+                .addKeyValue("errorKind", ex.getClass().getSimpleName())
+                .log("shared result store unavailable; probing locally");
+    }
+}
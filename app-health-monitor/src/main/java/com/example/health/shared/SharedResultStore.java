@@ -0,0 +1,28 @@
+package com.example.health.shared;
+
+import java.util.Map;
+
+/**
+ * Where replicas share the results of probes of shared dependencies (see {@link ResultSharing}).
+ * Each key holds a lease, held by one replica until {@code leaseUntil}, and the last result that
+ * replica published. Implementations must make {@link #tryAcquire} and {@link #publish} atomic
+ * across every replica that uses the store; times are epoch millis of the calling replica.
+ */
+public interface SharedResultStore {
+
+    /** Current holder and last published result of a key; {@code result} is null until one is published. */
+    record Entry(String owner, long leaseUntil, Map<String, Object> result, long publishedAt) {}
+
+    /** The key's entry, or null if no replica ever took its lease. */
+    Entry read(String key);
+
+    /** Takes or renews the lease when it is free, expired ({@code leaseUntil <= now}) or already {@code owner}'s. */
+    boolean tryAcquire(String key, String owner, long leaseUntil, long now);
+
+    /**
+     * Stores a result and extends the lease, but only while {@code owner} still holds it.
+     *
+     * @return false if the lease has passed to another replica; the result is then discarded
+     */
+    boolean publish(String key, String owner, long leaseUntil, Map<String, Object> result, long now);
+}
@@ -0,0 +1,65 @@
+package com.example.health.snapshot;
+
+import com.example.health.engine.HealthResult;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Refresh cadence of one component. While the component stays UP the interval doubles after
+ * each refresh, up to {@code max}; a status change, a non-UP result or a failed refresh drops it
+ * to {@code min}, so flapping and recovering components are watched closely and stable ones
+ * cost little.
+ *
+ * <p>Replicas usually start together. The first refresh runs at once, but the second one comes
+ * after a uniformly random part of the interval, so each instance settles on its own phase. Every
+ * later delay is randomised by up to {@code jitter} either way, which keeps the phases apart.
+ */
+final class AdaptiveSchedule {
+
+    private final long minMs;
+    private final long maxMs;
+    private final double jitter;
+    private long intervalMs;
+    private Status last; // null before the first result
+    private boolean phased;
+
+    AdaptiveSchedule(Duration min, Duration max, double jitter) {
+        this.minMs = Math.max(1, min.toMillis());
+        this.maxMs = Math.max(minMs, max.toMillis());
+        this.intervalMs = minMs;
+        this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+    }
+
+    /** Delay until the next refresh after one that produced {@code result} (null if it failed). */
+    synchronized long nextDelayMs(HealthResult result) {
+        Status status = result != null ? result.getStatus() : null;
+        if (status == null || !Status.UP.equals(status) || !status.equals(last)) {
+            intervalMs = minMs;
+        } else {
+            intervalMs = Math.min(maxMs, intervalMs * 2);
+        }
+        last = status;
+        if (!phased) {
+            phased = true;
+            return 1 + (long) (intervalMs * ThreadLocalRandom.current().nextDouble());
+        }
+        return jittered(intervalMs);
+    }
+
+    /** The longest the schedule may wait between two refreshes, jitter included. */
+    long maxDelayMs() {
+        return maxMs + (long) (maxMs * jitter);
+    }
+
+    long minDelayMs() {
+        return minMs;
+    }
+
+    private long jittered(long ms) {
+        if (jitter <= 0) return ms;
+        double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Math.max(1, (long) (ms * factor));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.health.snapshot;
+
+import com.example.health.engine.HealthResult;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of the last known results of every component. A new instance is
+ * published each time any component is refreshed; readers never block.
+ */
+public final class HealthSnapshot {
+    private final long version;
+    private final long createdAt; // epoch millis
+    private final HealthResult root;
+    private final Map<String, Long> staleAfterMs; // per top-level component
+
+    public HealthSnapshot(long version, long createdAt, HealthResult root, Map<String, Long> staleAfterMs) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.root = root;
+        this.staleAfterMs = staleAfterMs;
+    }
+
+    public long getVersion() { return version; }
+    public long getCreatedAt() { return createdAt; }
+    public HealthResult getRoot() { return root; }
+    public Status getStatus() { return root.getStatus(); }
+    public Map<String, Long> getStaleAfterMs() { return staleAfterMs; }
+
+    public long ageMs(HealthResult node, long now) {
+        return Math.max(0, now - node.getEvaluatedAt());
+    }
+
+    /** True when a result under the given top-level component is older than its staleness budget. */
+    public boolean isStale(String component, HealthResult node, long now) {
+        Long budget = staleAfterMs.get(component);
+        return budget != null && ageMs(node, now) > budget;
+    }
+}
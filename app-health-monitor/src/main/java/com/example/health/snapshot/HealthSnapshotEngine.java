@@ -0,0 +1,160 @@
+package com.example.health.snapshot;
+
+import com.example.health.config.AppHealthProperties;
+import com.example.health.engine.DerivedHealthIndicator;
+import com.example.health.engine.HealthEvaluator;
+import com.example.health.engine.HealthResult;
+import com.example.health.engine.SinglePassHealthContributor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.NamedContributor;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Refreshes each top-level component of the {@code custom} composite on its own schedule and
+ * publishes an immutable {@link HealthSnapshot}. The schedule adapts between
+ * {@code app.health.<component>.minRefreshInterval} and {@code maxRefreshInterval} and is jittered
+ * per instance (see {@link AdaptiveSchedule}). Derived indicators such as the flat summary are
+ * computed from the snapshot rather than probed.
+ */
+public class HealthSnapshotEngine implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(HealthSnapshotEngine.class);
+
+    private final AppHealthProperties props;
+    private final HealthEvaluator evaluator;
+    private final Map<String, HealthContributor> probed = new LinkedHashMap<>();
+    private final Map<String, DerivedHealthIndicator> derived = new LinkedHashMap<>();
+    private final Map<String, Long> staleAfterMs = new LinkedHashMap<>();
+    private final Map<String, AdaptiveSchedule> schedules = new LinkedHashMap<>();
+    private final AtomicReference<HealthSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private volatile ScheduledExecutorService scheduler;
+
+    public HealthSnapshotEngine(HealthContributor root, AppHealthProperties props, HealthEvaluator evaluator) {
+        this.props = props;
+        this.evaluator = evaluator;
+        root = SinglePassHealthContributor.unwrap(root);
+        if (root instanceof CompositeHealthContributor composite) {
+            for (NamedContributor<HealthContributor> child : composite) {
+                if (child.getContributor() instanceof DerivedHealthIndicator d) {
+                    derived.put(child.getName(), d);
+                } else {
+                    probed.put(child.getName(), child.getContributor());
+                }
+            }
+        } else {
+            probed.put("custom", root);
+        }
+        int factor = Math.max(1, props.getSnapshot().getStaleAfterIntervals());
+        probed.keySet().forEach(name -> {
+            AdaptiveSchedule schedule = new AdaptiveSchedule(props.minRefreshIntervalFor(name),
+                    props.maxRefreshIntervalFor(name), props.getSnapshot().getJitter());
+            schedules.put(name, schedule);
+            staleAfterMs.put(name, schedule.maxDelayMs() * factor);
+        });
+
+        long now = System.currentTimeMillis();
+        Map<String, HealthResult> pending = new LinkedHashMap<>();
+        probed.keySet().forEach(name ->
+                pending.put(name, HealthResult.leaf(Status.UNKNOWN, Map.of("snapshot", "pending"), now)));
+        derived.keySet().forEach(name -> pending.put(name, null));
+        current.set(new HealthSnapshot(versions.incrementAndGet(), now,
+                HealthEvaluator.withDerived(pending, derived, now), Collections.unmodifiableMap(staleAfterMs)));
+    }
+
+    /** Last published snapshot; never null. */
+    public HealthSnapshot current() {
+        return current.get();
+    }
+
+    /** Shortest refresh interval of any component: the longest a published result is guaranteed current. */
+    public Duration getRefreshInterval() {
+        long min = schedules.values().stream().mapToLong(AdaptiveSchedule::minDelayMs).min().orElse(30_000);
+        return Duration.ofMillis(min);
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger seq = new AtomicInteger();
+        ScheduledExecutorService exec = Executors.newScheduledThreadPool(Math.max(1, props.getSnapshot().getThreads()), r -> {
+            Thread t = new Thread(r, "app-health-refresh-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler = exec;
+        probed.forEach((name, contributor) -> exec.execute(() -> refreshAndReschedule(name, contributor, exec)));
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService exec = this.scheduler;
+        this.scheduler = null;
+        if (exec != null) {
+            exec.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /** One refresh, then the next one is scheduled after the component's adaptive delay. */
+    private void refreshAndReschedule(String name, HealthContributor contributor, ScheduledExecutorService exec) {
+        HealthResult result = refresh(name, contributor);
+        if (scheduler == exec && !exec.isShutdown()) {
+            try {
+                exec.schedule(() -> refreshAndReschedule(name, contributor, exec),
+                        schedules.get(name).nextDelayMs(result), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignore) {
+                // stopped meanwhile
+            }
+        }
+    }
+
+    /** The published result, or null if the refresh failed. */
+    HealthResult refresh(String name, HealthContributor contributor) {
+        try {
+            HealthResult result = evaluator.evaluate(name, contributor);
+            publish(name, result);
+            return result;
+        } catch (Throwable t) {
+            // Never let a failure stop the refresh cycle
+            log.atWarn()
+                    .addKeyValue("event", "app_health_refresh_failed")
+                    .addKeyValue("component", name)
+                    .addKeyValue("errorKind", t.getClass().getSimpleName())
+                    .log("app health refresh failed");
+            return null;
+        }
+    }
+
+    private void publish(String name, HealthResult result) {
+        while (true) {
+            HealthSnapshot prev = current.get();
+            long now = System.currentTimeMillis();
+            Map<String, HealthResult> children = new LinkedHashMap<>(prev.getRoot().getComponents());
+            children.put(name, result);
+            HealthSnapshot next = new HealthSnapshot(versions.incrementAndGet(), now,
+                    HealthEvaluator.withDerived(children, derived, now), prev.getStaleAfterMs());
+            if (current.compareAndSet(prev, next)) {
+                return;
+            }
+        }
+    }
+}
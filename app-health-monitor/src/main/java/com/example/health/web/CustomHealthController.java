@@ -1,90 +1,159 @@
 package com.example.health.web;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.health.engine.HealthEvaluator;
+import com.example.health.engine.HealthResult;
+import com.example.health.snapshot.HealthSnapshot;
+import com.example.health.snapshot.HealthSnapshotEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.actuate.health.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 /**
  * MVC alias for health. If the custom composite is available, renders it; otherwise
- * mirrors the standard Actuator health (via HealthEndpoint).
+ * mirrors the standard Actuator health (via HealthEndpoint). When the snapshot engine is
+ * enabled, the last published snapshot is served and no probe runs on the request thread.
+ *
+ * <p>Bodies are written as pre-encoded JSON bytes that are reused until the result changes
+ * (see {@link HealthResponseCache}). {@code ?view=flat} returns the flat list instead of the tree.
+ * {@code /app-health/custom/{path}} serves one component or subtree and evaluates nothing else.
+ * Every body carries a strong ETag; a matching {@code If-None-Match} gets {@code 304} without a
+ * body. {@code Cache-Control: max-age} follows the shortest snapshot refresh interval.
  */
 @RestController
 public class CustomHealthController {
-    private static final Logger log = LoggerFactory.getLogger(CustomHealthController.class);
 
     private final HealthContributor customOrNull;
+    private final HealthSnapshotEngine snapshotsOrNull;
+    private final HealthEvaluator evaluator;
+    private final HealthResponseCache responses;
+    private final String snapshotCacheControl;
 
-    public CustomHealthController(@Qualifier("custom") ObjectProvider<HealthContributor> customProvider) {
+    private static final String NO_CACHE = "no-cache";
+
+    /**
+     * Top-level names taken by the literal {@code /app-health/custom/events} and {@code /history}
+     * routes, which win over {@code {*path}}; a component with one of these names could not be queried.
+     */
+    public static final Set<String> RESERVED_NAMES = Set.of("events", "history");
+
+    public CustomHealthController(@Qualifier("custom") ObjectProvider<HealthContributor> customProvider,
+                                  ObjectProvider<HealthSnapshotEngine> snapshotProvider,
+                                  ObjectProvider<HealthEvaluator> evaluatorProvider,
+                                  ObjectProvider<ObjectMapper> objectMapperProvider) {
         this.customOrNull = customProvider.getIfAvailable();
+        this.snapshotsOrNull = snapshotProvider.getIfAvailable();
+        this.evaluator = evaluatorProvider.getIfAvailable(HealthEvaluator::new);
+        this.responses = new HealthResponseCache(objectMapperProvider.getIfAvailable(ObjectMapper::new));
+        // a snapshot cannot change faster than its components are refreshed
+        this.snapshotCacheControl = snapshotsOrNull == null ? NO_CACHE
+                : maxAge(snapshotsOrNull.getRefreshInterval());
     }
 
     @GetMapping(value = {"/app-health/custom", "/health/custom", "/actauator/health/custom"}, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> customHealth() {
+    public ResponseEntity<byte[]> customHealth(@RequestParam(name = "view", required = false) String view,
+                                               @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        HealthResponseCache.Shape shape = "flat".equalsIgnoreCase(view)
+                ? HealthResponseCache.Shape.FLAT : HealthResponseCache.Shape.NESTED;
+        if (snapshotsOrNull != null) {
+            HealthSnapshot snapshot = snapshotsOrNull.current();
+            return json(responses.body(snapshot.getRoot(), snapshot, shape), ifNoneMatch, snapshotCacheControl);
+        }
         if (customOrNull != null) {
-            return ResponseEntity.ok(renderContributor(customOrNull));
+            return json(responses.body(evaluator.evaluate(customOrNull), null, shape), ifNoneMatch, NO_CACHE);
         }
         // Fallback: redirect to standard Actuator health endpoint when custom is disabled/not present
         return ResponseEntity.status(HttpStatus.FOUND).header("Location", "/actuator/health").build();
     }
 
-    private Map<String, Object> renderContributor(HealthContributor contributor) {
-        Map<String, Object> root = new LinkedHashMap<>();
-        Map<String, Object> components = new LinkedHashMap<>();
+    /**
+     * One component or subtree, e.g. {@code /app-health/custom/external.httpbin} or
+     * {@code /app-health/custom/external/httpbin}: only that node is evaluated. Unknown paths get 404.
+     * Top-level components never use a {@link #RESERVED_NAMES reserved name}.
+     */
+    @GetMapping(value = {"/app-health/custom/{*path}", "/health/custom/{*path}", "/actauator/health/custom/{*path}"},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> componentHealth(@PathVariable("path") String path,
+                                                  @RequestParam(name = "view", required = false) String view,
+                                                  @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<String> segments = segments(path);
+        if (segments.isEmpty()) {
+            return customHealth(view, ifNoneMatch);
+        }
+        HealthResponseCache.Shape shape = "flat".equalsIgnoreCase(view)
+                ? HealthResponseCache.Shape.FLAT : HealthResponseCache.Shape.NESTED;
+        if (snapshotsOrNull != null) {
+            HealthSnapshot snapshot = snapshotsOrNull.current();
+            HealthResult node = snapshot.getRoot().find(segments);
+            return node == null ? ResponseEntity.notFound().build()
+                    : json(responses.body(segments, node, snapshot, shape), ifNoneMatch, snapshotCacheControl);
+        }
+        if (customOrNull != null) {
+            HealthResult node = evaluator.evaluate(customOrNull, segments);
+            return node == null ? ResponseEntity.notFound().build()
+                    : json(responses.body(segments, node, null, shape), ifNoneMatch, NO_CACHE);
+        }
+        return ResponseEntity.status(HttpStatus.FOUND).header("Location", "/actuator/health").build();
+    }
+
+    /** {@code max-age} in whole seconds, rounded up: a sub-second interval still allows one second of caching. */
+    static String maxAge(Duration refreshInterval) {
+        long ms = Math.max(1, refreshInterval.toMillis());
+        return "max-age=" + Math.max(1, (ms + 999) / 1000);
+    }
 
-        Status overall = renderInto(components, contributor);
-        root.put("status", overall.getCode());
-        if (!components.isEmpty()) {
-            root.put("components", components);
+    /** Path segments of a component path; {@code /} and {@code .} both separate segments. */
+    static List<String> segments(String path) {
+        if (path == null) return List.of();
+        List<String> out = new ArrayList<>();
+        for (String s : path.split("[/.]")) {
+            if (!s.isEmpty()) out.add(s);
         }
-        return root;
+        return out;
     }
 
-    private Status renderInto(Map<String, Object> out, HealthContributor contributor) {
-        if (contributor instanceof CompositeHealthContributor composite) {
-            Status worst = Status.UP;
-            Map<String, Object> nestedMap = new LinkedHashMap<>();
-            for (NamedContributor<HealthContributor> child : composite) {
-                Map<String, Object> childObj = new LinkedHashMap<>();
-                Status childStatus = renderInto(childObj, child.getContributor());
-                worst = worseOf(worst, childStatus);
-                nestedMap.put(child.getName(), childObj);
-            }
-            out.put("status", worst.getCode());
-            if (!nestedMap.isEmpty()) {
-                out.put("components", nestedMap);
-            }
-            return worst;
-        } else if (contributor instanceof HealthIndicator hi) {
-            Health h = hi.health();
-            out.put("status", h.getStatus().getCode());
-            if (!h.getDetails().isEmpty()) {
-                out.put("details", h.getDetails());
-            }
-            return h.getStatus();
+    static ResponseEntity<byte[]> json(HealthResponseCache.Entry entry, String ifNoneMatch, String cacheControl) {
+        if (matches(ifNoneMatch, entry.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.ETAG, entry.etag())
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .build();
         }
-        return Status.UNKNOWN;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.ETAG, entry.etag())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .body(entry.body());
     }
 
-    private Status worseOf(Status a, Status b) {
-        // Simple severity ordering: DOWN > OUT_OF_SERVICE > UNKNOWN > UP
-        int ra = rank(a), rb = rank(b);
-        return (rb > ra) ? b : a;
+    /** If-None-Match uses weak comparison; the common case is one tag equal to ours. */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) return false;
+        if (ifNoneMatch.equals(etag)) return true;
+        String ours = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (opaque(tag).equals(ours)) return true;
+        }
+        return false;
     }
 
-    private int rank(Status s) {
-        if (Status.DOWN.equals(s)) return 4;
-        if (Status.OUT_OF_SERVICE.equals(s)) return 3;
-        if (Status.UNKNOWN.equals(s)) return 2;
-        return 1; // UP and any other
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
     }
 }
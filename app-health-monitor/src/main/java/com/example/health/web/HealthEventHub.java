@@ -0,0 +1,274 @@
+package com.example.health.web;
+
+import com.example.health.engine.HealthResult;
+import com.example.health.engine.LeafResultListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events of status changes, for dashboards that would otherwise poll
+ * {@code /app-health/custom}. Register it with
+ * {@link com.example.health.engine.HealthEvaluator#addListener(LeafResultListener)}.
+ *
+ * <p>A leaf result whose status and error kind equal the previous ones costs one map lookup and
+ * two comparisons. A change becomes one {@code transition} event, encoded once and shared by all
+ * subscribers. A new subscriber first gets a {@code snapshot} event with every component, then the
+ * transitions that the snapshot does not already contain. Heartbeat comment frames keep idle
+ * connections open through proxies.
+ *
+ * <p>Each subscriber has a bounded queue. A queue is drained on a virtual thread only while it has
+ * events, so idle subscribers hold no thread and a slow client does not delay the others. A
+ * subscriber whose queue overflows is closed; its client reconnects and starts from a new snapshot.
+ *
+ * <p>The senders are the hub's own, not the probe executor: a send blocks for as long as the client
+ * is slow, and on a bounded probe pool slow dashboards would hold the threads probes need.
+ */
+public class HealthEventHub implements LeafResultListener, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(HealthEventHub.class);
+
+    /** One SSE frame. {@code component} is null for snapshots and heartbeats. */
+    public record Event(String name, long id, String component, String data, byte[] frame) {}
+
+    /** Where a subscription's events go; called on one thread at a time, in order. */
+    public interface Subscriber {
+        /** Writes one event; an exception ends the subscription. */
+        void send(Event event) throws Exception;
+
+        /** Ends the stream, e.g. after an overflow or on shutdown. */
+        void close();
+    }
+
+    /** Handle of one subscription. */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Event HEARTBEAT = new Event(null, 0, null, null,
+            ": heartbeat\n\n".getBytes(StandardCharsets.UTF_8));
+
+    private record State(String status, String errorKind, long id) {}
+
+    private final ObjectMapper mapper;
+    private final int maxSubscribers;
+    private final int maxQueued;
+    private final ConcurrentHashMap<String, State> states = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final Set<Queue> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger reserved = new AtomicInteger(); // slots taken, including subscriptions being set up
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats;
+
+    /**
+     * @param heartbeat      interval of heartbeat frames; null or zero sends none
+     * @param maxSubscribers further subscriptions are refused
+     * @param maxQueued      events a subscriber may fall behind before it is closed
+     */
+    public HealthEventHub(ObjectMapper mapper, Duration heartbeat, int maxSubscribers, int maxQueued) {
+        this.mapper = mapper != null ? mapper : new ObjectMapper();
+        this.maxSubscribers = Math.max(1, maxSubscribers);
+        this.maxQueued = Math.max(1, maxQueued);
+        if (heartbeat == null || heartbeat.isZero() || heartbeat.isNegative()) {
+            this.heartbeats = null;
+        } else {
+            this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofVirtual().name("app-health-events-heartbeat").factory());
+            long ms = heartbeat.toMillis();
+            heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(q -> q.offer(HEARTBEAT)), ms, ms, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void onResult(String path, HealthResult result, long elapsedNanos) {
+        String status = result.getStatus().getCode();
+        String errorKind = errorKindOf(result);
+        State previous = states.get(path);
+        if (previous != null && previous.status().equals(status) && Objects.equals(previous.errorKind(), errorKind)) {
+            return;
+        }
+        State[] changed = new State[2];
+        states.compute(path, (p, old) -> {
+            if (old != null && old.status().equals(status) && Objects.equals(old.errorKind(), errorKind)) {
+                return old; // another thread recorded the same change
+            }
+            changed[0] = old;
+            return changed[1] = new State(status, errorKind, ids.incrementAndGet());
+        });
+        if (changed[1] != null && !subscribers.isEmpty()) {
+            Event event = transition(path, changed[0], changed[1], result.getEvaluatedAt());
+            subscribers.forEach(q -> q.offer(event));
+        }
+    }
+
+    /**
+     * Starts a stream: a snapshot first, then transitions. Returns null when the hub is at
+     * {@code maxSubscribers}.
+     */
+    public Subscription subscribe(Subscriber subscriber) {
+        int n;
+        do {
+            n = reserved.get();
+            if (n >= maxSubscribers) {
+                return null;
+            }
+        } while (!reserved.compareAndSet(n, n + 1));
+        Queue queue = new Queue(subscriber);
+        subscribers.add(queue); // before reading the states, so no change falls between the two
+        Map<String, Long> versions = new LinkedHashMap<>();
+        queue.start(snapshot(versions), versions);
+        return queue::close;
+    }
+
+    public int subscriberCount() {
+        return reserved.get();
+    }
+
+    private Event snapshot(Map<String, Long> versions) {
+        Map<String, Object> components = new TreeMap<>();
+        long id = 0;
+        for (Map.Entry<String, State> e : states.entrySet()) {
+            State s = e.getValue();
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("status", s.status());
+            if (s.errorKind() != null) c.put("errorKind", s.errorKind());
+            components.put(e.getKey(), c);
+            versions.put(e.getKey(), s.id());
+            id = Math.max(id, s.id());
+        }
+        return event("snapshot", id, null, Map.of("components", components));
+    }
+
+    private Event transition(String path, State from, State to, long at) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("component", path);
+        data.put("status", to.status());
+        if (from != null) data.put("previous", from.status());
+        if (to.errorKind() != null) data.put("errorKind", to.errorKind());
+        data.put("at", at);
+        return event("transition", to.id(), path, data);
+    }
+
+    private Event event(String name, long id, String component, Map<String, Object> data) {
+        String json;
+        try {
+            json = mapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            json = "{}";
+        }
+        String frame = "event: " + name + "\nid: " + id + "\ndata: " + json + "\n\n";
+        return new Event(name, id, component, json, frame.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String errorKindOf(HealthResult result) {
+        Map<String, Object> details = result.getDetails();
+        if (details.get("errorKind") instanceof String s) return s;
+        return Boolean.TRUE.equals(details.get("timedOut")) ? "timeout" : null;
+    }
+
+    @Override
+    public void close() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+        subscribers.forEach(Queue::close);
+        senders.shutdownNow();
+    }
+
+    /** Pending events of one subscriber and the flag that at most one sender drains them. */
+    private final class Queue {
+        private final Subscriber subscriber;
+        private final ConcurrentLinkedDeque<Event> pending = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean started;
+        private volatile Map<String, Long> versions = Map.of();
+
+        Queue(Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void start(Event snapshot, Map<String, Long> snapshotVersions) {
+            versions = snapshotVersions;
+            pending.offerFirst(snapshot);
+            size.incrementAndGet();
+            started = true;
+            schedule();
+        }
+
+        void offer(Event event) {
+            if (closed.get()) return;
+            if (size.incrementAndGet() > maxQueued) {
+                log.atDebug()
+                        .addKeyValue("event", "app_health_events_subscriber_overflow")
+                        .addKeyValue("maxQueued", maxQueued)
+                        .log("app health event subscriber too slow; closing");
+                close();
+                return;
+            }
+            pending.offer(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (started && !pending.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    close(); // hub closed
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while (!closed.get() && (event = pending.poll()) != null) {
+                    size.decrementAndGet();
+                    if (event.component() != null && versions.getOrDefault(event.component(), 0L) >= event.id()) {
+                        continue; // already part of the snapshot
+                    }
+                    subscriber.send(event);
+                }
+            } catch (Exception e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            schedule(); // an event offered after the last poll
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                reserved.decrementAndGet();
+                pending.clear();
+                try {
+                    subscriber.close();
+                } catch (RuntimeException ignore) {
+                    // the connection is gone already
+                }
+            }
+        }
+    }
+}
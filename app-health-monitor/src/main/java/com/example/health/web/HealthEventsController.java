@@ -0,0 +1,59 @@
+package com.example.health.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.time.Duration;
+
+/**
+ * {@code /app-health/custom/events}: status changes as Server-Sent Events (see
+ * {@link HealthEventHub}). The request is asynchronous, so an open stream holds no servlet thread;
+ * the pre-encoded frames are written as they are. When the stream times out the browser's
+ * {@code EventSource} reconnects and starts again from a snapshot. Past {@code maxSubscribers}
+ * the answer is {@code 503}.
+ */
+@RestController
+public class HealthEventsController {
+
+    private final HealthEventHub hub;
+    private final Long timeoutMs;
+
+    /** @param timeout how long one stream stays open; null uses the MVC async request timeout */
+    public HealthEventsController(HealthEventHub hub, Duration timeout) {
+        this.hub = hub;
+        this.timeoutMs = timeout == null ? null : timeout.toMillis();
+    }
+
+    @GetMapping(value = {"/app-health/custom/events", "/health/custom/events", "/actauator/health/custom/events"},
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> events() {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+        HealthEventHub.Subscription subscription = hub.subscribe(new HealthEventHub.Subscriber() {
+            @Override
+            public void send(HealthEventHub.Event event) throws Exception {
+                emitter.send(event.frame(), MediaType.TEXT_EVENT_STREAM);
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        if (subscription == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .header("X-Accel-Buffering", "no") // nginx would otherwise hold frames back
+                .body(emitter);
+    }
+}
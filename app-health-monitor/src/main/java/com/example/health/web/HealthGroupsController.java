@@ -0,0 +1,56 @@
+package com.example.health.web;
+
+import com.example.health.engine.HealthResult;
+import com.example.health.group.LivenessGroup;
+import com.example.health.group.ReadinessGroup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Kubelet-facing probes next to {@code /app-health/custom}: {@code /app-health/liveness} and
+ * {@code /app-health/readiness}. Neither probes a dependency on the request thread, so the handler
+ * returns at once on MVC and on WebFlux alike. Anything but UP is {@code 503}. There is no ETag
+ * here: a {@code 304} would count as a passing probe.
+ */
+@RestController
+public class HealthGroupsController {
+
+    private static final String NO_STORE = "no-store";
+
+    private final LivenessGroup liveness;
+    private final ReadinessGroup readiness;
+    private final HealthResponseCache livenessBodies;
+    private final HealthResponseCache readinessBodies;
+
+    public HealthGroupsController(LivenessGroup liveness, ReadinessGroup readiness, ObjectMapper objectMapper) {
+        ObjectMapper mapper = objectMapper != null ? objectMapper : new ObjectMapper();
+        this.liveness = liveness;
+        this.readiness = readiness;
+        this.livenessBodies = new HealthResponseCache(mapper);
+        this.readinessBodies = new HealthResponseCache(mapper);
+    }
+
+    @GetMapping(value = "/app-health/liveness", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> liveness() {
+        return respond(liveness.evaluate(), livenessBodies);
+    }
+
+    @GetMapping(value = "/app-health/readiness", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> readiness() {
+        return respond(readiness.evaluate(), readinessBodies);
+    }
+
+    private static ResponseEntity<byte[]> respond(HealthResult root, HealthResponseCache bodies) {
+        HealthResponseCache.Entry entry = bodies.body(root, null, HealthResponseCache.Shape.NESTED);
+        return ResponseEntity.status(Status.UP.equals(root.getStatus()) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CACHE_CONTROL, NO_STORE)
+                .body(entry.body());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.health.web;
+
+import com.example.health.engine.HealthHistory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /app-health/custom/history}: the most recent results of every component, oldest first,
+ * with the status transitions each has gone through since startup. {@code ?limit=N} returns at
+ * most N entries per component. The literal path wins over {@code /app-health/custom/{path}}.
+ */
+@RestController
+public class HealthHistoryController {
+
+    private final HealthHistory history;
+
+    public HealthHistoryController(HealthHistory history) {
+        this.history = history;
+    }
+
+    @GetMapping(value = {"/app-health/custom/history", "/health/custom/history", "/actauator/health/custom/history"},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> history(@RequestParam(name = "limit", required = false) Integer limit) {
+        int n = limit == null ? history.getCapacity() : limit;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("capacity", history.getCapacity());
+        body.put("components", history.snapshot(n));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(body);
+    }
+}
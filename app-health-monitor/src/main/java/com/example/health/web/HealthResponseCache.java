@@ -0,0 +1,280 @@
+package com.example.health.web;
+
+import com.example.health.engine.HealthResult;
+import com.example.health.indicator.FlatSummaryHealthIndicator;
+import com.example.health.snapshot.HealthSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.actuate.health.Health;
+
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * UTF-8 JSON bodies of {@code /app-health/custom} and its subtrees, encoded once per result and reused until the
+ * result changes. A result is identified by its root instance (a snapshot version, or a coalesced
+ * evaluation) and, for snapshots, by which components are currently stale; serving a cached body
+ * costs a reference comparison and a few timestamp checks.
+ *
+ * <p>The entity tag is computed from the result, not from the bytes: statuses, names and details,
+ * minus the details that change on every call without a change in health (latencies, ages,
+ * {@code evaluatedAt}). It is therefore a weak tag, equal for results that differ only in those
+ * values. The body is encoded only when it is first needed, so a request whose
+ * {@code If-None-Match} matches is answered without encoding anything.
+ */
+final class HealthResponseCache {
+
+    enum Shape { NESTED, FLAT }
+
+    /** A result's weak entity tag and its body, encoded on first use. */
+    final class Entry {
+        private final HealthResult root;
+        private final long staleMask;
+        private final String etag;
+        private final Supplier<Object> tree;
+        private volatile byte[] body;
+
+        Entry(HealthResult root, long staleMask, String etag, Supplier<Object> tree) {
+            this.root = root;
+            this.staleMask = staleMask;
+            this.etag = etag;
+            this.tree = tree;
+        }
+
+        HealthResult root() { return root; }
+        long staleMask() { return staleMask; }
+        String etag() { return etag; }
+
+        byte[] body() {
+            byte[] b = body;
+            if (b == null) {
+                b = encode(tree.get()); // racing callers encode the same bytes; either copy is kept
+                body = b;
+            }
+            return b;
+        }
+    }
+
+    /** Details that change on every call or every refresh while the health they describe does not. */
+    private static final Set<String> PER_CALL = Set.of("latencyMs", "queryMs", "poolWaitMs", "latencyP50Ms",
+            "latencyP90Ms", "latencyP99Ms", "latencyMaxMs", "latencySamples", "sharedAgeMs", "nextAttemptIn", "evaluatedAt");
+
+    private static final long UNCACHEABLE = -1L;
+
+    private final ObjectMapper mapper;
+    private final AtomicReference<Entry> nested = new AtomicReference<>();
+    private final AtomicReference<Entry> flat = new AtomicReference<>();
+    private final ConcurrentHashMap<Slot, AtomicReference<Entry>> subtrees = new ConcurrentHashMap<>();
+
+    private record Slot(String path, Shape shape) {}
+
+    HealthResponseCache(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    Entry body(HealthResult root, HealthSnapshot snapshot, Shape shape) {
+        long now = System.currentTimeMillis();
+        long staleMask = staleMask(root, snapshot, now);
+        AtomicReference<Entry> slot = shape == Shape.FLAT ? flat : nested;
+        Entry cached = slot.get();
+        if (cached != null && cached.root() == root && cached.staleMask() == staleMask && staleMask != UNCACHEABLE) {
+            return cached;
+        }
+        String etag = etagOf(shape, "", root, staleMask);
+        if (staleMask == UNCACHEABLE) {
+            etag = etagOf(shape, staleNames(root, snapshot, now), root, staleMask);
+        }
+        Entry next = new Entry(root, staleMask, etag,
+                () -> shape == Shape.FLAT ? renderFlat(root) : render(root, snapshot, now));
+        slot.set(next);
+        return next;
+    }
+
+    /**
+     * Body of the node at {@code path} (non-empty) of the tree; {@code node} is that node. Each path
+     * and shape has its own slot. Only paths that resolved to a node get here, so the slots are
+     * bounded by the size of the tree. Flat items keep their full dotted names.
+     */
+    Entry body(List<String> path, HealthResult node, HealthSnapshot snapshot, Shape shape) {
+        long now = System.currentTimeMillis();
+        boolean stale = snapshot != null && snapshot.isStale(path.get(0), node, now);
+        long staleMask = stale ? 1L : 0L;
+        AtomicReference<Entry> slot = subtrees.computeIfAbsent(new Slot(String.join(".", path), shape),
+                k -> new AtomicReference<>());
+        Entry cached = slot.get();
+        if (cached != null && cached.root() == node && cached.staleMask() == staleMask) {
+            return cached;
+        }
+        Entry next = new Entry(node, staleMask, etagOf(shape, String.join(".", path), node, staleMask), () -> {
+            if (shape == Shape.FLAT) {
+                return renderFlat(rooted(path, node));
+            }
+            Map<String, Object> out = new LinkedHashMap<>();
+            renderResultInto(out, node, snapshot, stale);
+            return out;
+        });
+        slot.set(next);
+        return next;
+    }
+
+    /** {@code node} re-hung under its path, so that flat item names are the full dotted paths. */
+    private static HealthResult rooted(List<String> path, HealthResult node) {
+        HealthResult out = node;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            out = HealthResult.composite(Map.of(path.get(i), out), out.getEvaluatedAt());
+        }
+        return out;
+    }
+
+    /** FNV-1a over shape, path, stale components and the result: equal across instances and restarts. */
+    private static String etagOf(Shape shape, String path, HealthResult node, long staleMask) {
+        long h = 0xcbf29ce484222325L;
+        h = fnv(h, shape.name());
+        h = fnv(h, path);
+        h = fnv(h, Long.toHexString(staleMask));
+        h = hash(h, node);
+        return "W/\"" + Long.toHexString(h) + "\"";
+    }
+
+    private static long hash(long h, HealthResult node) {
+        h = fnv(h, node.getStatus().getCode());
+        if (node.isComposite()) {
+            for (Map.Entry<String, HealthResult> e : node.getComponents().entrySet()) {
+                h = hash(fnv(h, e.getKey()), e.getValue());
+            }
+            return h;
+        }
+        return hashValue(h, node.getDetails());
+    }
+
+    private static long hashValue(long h, Object value) {
+        if (value instanceof Map<?, ?> m) {
+            h = fnv(h, "{");
+            for (Map.Entry<?, ?> e : m.entrySet()) {
+                String key = String.valueOf(e.getKey());
+                if (PER_CALL.contains(key)) continue;
+                h = hashValue(fnv(h, key), e.getValue());
+            }
+            return fnv(h, "}");
+        }
+        if (value instanceof Collection<?> c) {
+            h = fnv(h, "[");
+            for (Object v : c) {
+                h = hashValue(h, v);
+            }
+            return fnv(h, "]");
+        }
+        return fnv(h, String.valueOf(value));
+    }
+
+    private static long fnv(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            h ^= c & 0xff;
+            h *= 0x100000001b3L;
+            h ^= c >>> 8;
+            h *= 0x100000001b3L;
+        }
+        h ^= 0xff; // separator, so ("ab", "c") and ("a", "bc") differ
+        return h * 0x100000001b3L;
+    }
+
+    /** The stale top-level components, for trees too wide for a mask. */
+    private static String staleNames(HealthResult root, HealthSnapshot snapshot, long now) {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, HealthResult> e : root.getComponents().entrySet()) {
+            if (snapshot.isStale(e.getKey(), e.getValue(), now)) {
+                out.append(e.getKey()).append(',');
+            }
+        }
+        return out.toString();
+    }
+
+    /** Bit i is set when the i-th top-level component is stale; 0 outside snapshot mode. */
+    private long staleMask(HealthResult root, HealthSnapshot snapshot, long now) {
+        if (snapshot == null) {
+            return 0L;
+        }
+        if (root.getComponents().size() > 63) {
+            return UNCACHEABLE;
+        }
+        long mask = 0L;
+        int i = 0;
+        for (Map.Entry<String, HealthResult> e : root.getComponents().entrySet()) {
+            if (snapshot.isStale(e.getKey(), e.getValue(), now)) {
+                mask |= 1L << i;
+            }
+            i++;
+        }
+        return mask;
+    }
+
+    private byte[] encode(Object tree) {
+        try {
+            return mapper.writeValueAsBytes(tree);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Renders a result tree; with a snapshot, leaves also report when they were evaluated and staleness. */
+    private Map<String, Object> render(HealthResult result, HealthSnapshot snapshot, long now) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        Map<String, Object> components = new LinkedHashMap<>();
+        for (Map.Entry<String, HealthResult> e : result.getComponents().entrySet()) {
+            boolean stale = snapshot != null && snapshot.isStale(e.getKey(), e.getValue(), now);
+            Map<String, Object> childObj = new LinkedHashMap<>();
+            renderResultInto(childObj, e.getValue(), snapshot, stale);
+            components.put(e.getKey(), childObj);
+        }
+        root.put("status", result.getStatus().getCode());
+        if (!components.isEmpty()) {
+            root.put("components", components);
+        }
+        return root;
+    }
+
+    private void renderResultInto(Map<String, Object> out, HealthResult node, HealthSnapshot snapshot, boolean stale) {
+        out.put("status", node.getStatus().getCode());
+        if (node.isComposite()) {
+            Map<String, Object> nestedMap = new LinkedHashMap<>();
+            for (Map.Entry<String, HealthResult> e : node.getComponents().entrySet()) {
+                Map<String, Object> childObj = new LinkedHashMap<>();
+                renderResultInto(childObj, e.getValue(), snapshot, stale);
+                nestedMap.put(e.getKey(), childObj);
+            }
+            if (!nestedMap.isEmpty()) {
+                out.put("components", nestedMap);
+            }
+        } else if (snapshot != null) {
+            Map<String, Object> details = new LinkedHashMap<>(node.getDetails());
+            details.put("evaluatedAt", node.getEvaluatedAt());
+            details.put("stale", stale);
+            out.put("details", details);
+        } else if (!node.getDetails().isEmpty()) {
+            out.put("details", node.getDetails());
+        }
+    }
+
+    /** The tree's own flat component when it has one, otherwise a flat view computed from it. */
+    private Map<String, Object> renderFlat(HealthResult result) {
+        HealthResult own = result.getComponents().get("flat");
+        Map<String, Object> out = new LinkedHashMap<>();
+        if (own != null && !own.isComposite()) {
+            out.put("status", own.getStatus().getCode());
+            out.put("items", own.getDetails().get("items"));
+        } else {
+            Health h = FlatSummaryHealthIndicator.summaryOf(result);
+            out.put("status", h.getStatus().getCode());
+            out.put("items", h.getDetails().get("items"));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.health.web;
+
+import com.example.health.engine.HealthResult;
+import com.example.health.reactive.ReactiveHealthEvaluator;
+import com.example.health.snapshot.HealthSnapshot;
+import com.example.health.snapshot.HealthSnapshotEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.boot.actuate.health.ReactiveHealthContributor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux counterpart of {@link CustomHealthController}: same paths, bodies, ETags and caching.
+ * The {@code custom} tree is evaluated reactively, so no event-loop thread waits on a probe;
+ * in snapshot mode the last published snapshot is served without evaluating anything.
+ */
+@RestController
+public class ReactiveCustomHealthController {
+
+    private final ReactiveHealthContributor customOrNull;
+    private final HealthSnapshotEngine snapshotsOrNull;
+    private final ReactiveHealthEvaluator evaluator;
+    private final HealthResponseCache responses;
+    private final String snapshotCacheControl;
+
+    private static final String NO_CACHE = "no-cache";
+
+    /** {@code custom} and {@code snapshots} may be null. */
+    public ReactiveCustomHealthController(ReactiveHealthContributor custom, HealthSnapshotEngine snapshots,
+                                          ReactiveHealthEvaluator evaluator, ObjectMapper objectMapper) {
+        this.customOrNull = custom;
+        this.snapshotsOrNull = snapshots;
+        this.evaluator = evaluator;
+        this.responses = new HealthResponseCache(objectMapper != null ? objectMapper : new ObjectMapper());
+        this.snapshotCacheControl = snapshotsOrNull == null ? NO_CACHE
+                : CustomHealthController.maxAge(snapshotsOrNull.getRefreshInterval());
+    }
+
+    @GetMapping(value = {"/app-health/custom", "/health/custom", "/actauator/health/custom"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> customHealth(@RequestParam(name = "view", required = false) String view,
+                                                     @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        HealthResponseCache.Shape shape = "flat".equalsIgnoreCase(view)
+                ? HealthResponseCache.Shape.FLAT : HealthResponseCache.Shape.NESTED;
+        if (snapshotsOrNull != null) {
+            HealthSnapshot snapshot = snapshotsOrNull.current();
+            return Mono.just(CustomHealthController.json(responses.body(snapshot.getRoot(), snapshot, shape),
+                    ifNoneMatch, snapshotCacheControl));
+        }
+        if (customOrNull != null) {
+            return evaluator.evaluate(customOrNull)
+                    .map(root -> CustomHealthController.json(responses.body(root, null, shape), ifNoneMatch, NO_CACHE));
+        }
+        return Mono.just(ResponseEntity.status(HttpStatus.FOUND).header("Location", "/actuator/health").build());
+    }
+
+    /** One component or subtree; only that node is evaluated. Unknown paths get 404. */
+    @GetMapping(value = {"/app-health/custom/{*path}", "/health/custom/{*path}", "/actauator/health/custom/{*path}"},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> componentHealth(@PathVariable("path") String path,
+                                                        @RequestParam(name = "view", required = false) String view,
+                                                        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<String> segments = CustomHealthController.segments(path);
+        if (segments.isEmpty()) {
+            return customHealth(view, ifNoneMatch);
+        }
+        HealthResponseCache.Shape shape = "flat".equalsIgnoreCase(view)
+                ? HealthResponseCache.Shape.FLAT : HealthResponseCache.Shape.NESTED;
+        if (snapshotsOrNull != null) {
+            HealthSnapshot snapshot = snapshotsOrNull.current();
+            HealthResult node = snapshot.getRoot().find(segments);
+            return Mono.just(node == null ? ResponseEntity.notFound().build()
+                    : CustomHealthController.json(responses.body(segments, node, snapshot, shape), ifNoneMatch, snapshotCacheControl));
+        }
+        if (customOrNull != null) {
+            return evaluator.evaluate(customOrNull, segments)
+                    .map(node -> CustomHealthController.json(responses.body(segments, node, null, shape), ifNoneMatch, NO_CACHE))
+                    .defaultIfEmpty(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.status(HttpStatus.FOUND).header("Location", "/actuator/health").build());
+    }
+}
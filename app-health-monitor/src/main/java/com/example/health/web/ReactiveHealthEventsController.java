@@ -0,0 +1,52 @@
+package com.example.health.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+/**
+ * WebFlux counterpart of {@link HealthEventsController}. Events are pushed into the response as
+ * the hub produces them; a client that lets more than {@code maxQueued} events pile up is
+ * disconnected and reconnects to a new snapshot.
+ */
+@RestController
+public class ReactiveHealthEventsController {
+
+    private static final ServerSentEvent<String> HEARTBEAT = ServerSentEvent.<String>builder().comment("heartbeat").build();
+
+    private final HealthEventHub hub;
+    private final int maxQueued;
+
+    public ReactiveHealthEventsController(HealthEventHub hub, int maxQueued) {
+        this.hub = hub;
+        this.maxQueued = Math.max(1, maxQueued);
+    }
+
+    @GetMapping(value = {"/app-health/custom/events", "/health/custom/events", "/actauator/health/custom/events"},
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> events() {
+        return Flux.<ServerSentEvent<String>>create(sink -> {
+            HealthEventHub.Subscription subscription = hub.subscribe(new HealthEventHub.Subscriber() {
+                @Override
+                public void send(HealthEventHub.Event event) {
+                    sink.next(event.name() == null ? HEARTBEAT : ServerSentEvent.builder(event.data())
+                            .event(event.name()).id(Long.toString(event.id())).build());
+                }
+
+                @Override
+                public void close() {
+                    sink.complete();
+                }
+            });
+            if (subscription == null) {
+                sink.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+                return;
+            }
+            sink.onDispose(subscription::close);
+        }).onBackpressureBuffer(maxQueued);
+    }
+}
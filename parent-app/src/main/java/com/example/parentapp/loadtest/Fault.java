@@ -0,0 +1,59 @@
+package com.example.parentapp.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Misbehaviour of one stubbed dependency. Every call waits {@code latency} plus up to
+ * {@code jitter}; then, with probability {@code hangRate}, blocks for {@code hangFor}, or, with
+ * probability {@code errorRate}, fails.
+ *
+ * <p>Written on the command line as comma-separated {@code key=value} pairs, e.g.
+ * {@code latency=20ms,jitter=10ms,error=0.05,hang=0.01,hangFor=30s}; omitted keys are zero
+ * ({@code hangFor} defaults to 30s).
+ */
+public record Fault(Duration latency, Duration jitter, double errorRate, double hangRate, Duration hangFor) {
+
+    public static final Fault NONE = new Fault(Duration.ZERO, Duration.ZERO, 0, 0, Duration.ofSeconds(30));
+
+    public static Fault parse(String spec) {
+        if (spec == null || spec.isBlank()) return NONE;
+        Duration latency = NONE.latency;
+        Duration jitter = NONE.jitter;
+        double error = NONE.errorRate;
+        double hang = NONE.hangRate;
+        Duration hangFor = NONE.hangFor;
+        for (String pair : spec.split(",")) {
+            String[] kv = pair.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected key=value in fault spec: " + pair);
+            }
+            String value = kv[1].trim();
+            switch (kv[0].trim().toLowerCase(Locale.ROOT)) {
+                case "latency" -> latency = DurationStyle.detectAndParse(value);
+                case "jitter" -> jitter = DurationStyle.detectAndParse(value);
+                case "error" -> error = rate(value);
+                case "hang" -> hang = rate(value);
+                case "hangfor" -> hangFor = DurationStyle.detectAndParse(value);
+                default -> throw new IllegalArgumentException("Unknown fault key: " + kv[0]);
+            }
+        }
+        return new Fault(latency, jitter, error, hang, hangFor);
+    }
+
+    private static double rate(String value) {
+        double r = Double.parseDouble(value);
+        if (r < 0 || r > 1) {
+            throw new IllegalArgumentException("Rate must be between 0 and 1: " + value);
+        }
+        return r;
+    }
+
+    @Override
+    public String toString() {
+        return "latency=" + latency.toMillis() + "ms,jitter=" + jitter.toMillis() + "ms,error=" + errorRate
+                + ",hang=" + hangRate + ",hangFor=" + hangFor.toMillis() + "ms";
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.parentapp.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Applies a {@link Fault} to every call of one stub and counts what happened. */
+public final class FaultInjector {
+
+    /** Counters at one point in time; subtract two to get the calls made in between. */
+    public record Counts(long calls, long errors, long hangs) {
+        public Counts minus(Counts earlier) {
+            return new Counts(calls - earlier.calls, errors - earlier.errors, hangs - earlier.hangs);
+        }
+    }
+
+    private final String name;
+    private final Fault fault;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder hangs = new LongAdder();
+
+    public FaultInjector(String name, Fault fault) {
+        this.name = name;
+        this.fault = fault;
+    }
+
+    /** Waits, hangs or throws as configured; returns normally for a healthy call. */
+    public void apply() throws InterruptedException {
+        calls.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long waitMs = fault.latency().toMillis();
+        if (!fault.jitter().isZero()) {
+            waitMs += random.nextLong(fault.jitter().toMillis() + 1);
+        }
+        if (waitMs > 0) {
+            Thread.sleep(waitMs);
+        }
+        if (fault.hangRate() > 0 && random.nextDouble() < fault.hangRate()) {
+            hangs.increment();
+            Thread.sleep(fault.hangFor().toMillis()); // interruptible, so a cancelled probe frees its thread
+        }
+        if (fault.errorRate() > 0 && random.nextDouble() < fault.errorRate()) {
+            errors.increment();
+            throw new IllegalStateException("injected failure: " + name);
+        }
+    }
+
+    public Counts counts() {
+        return new Counts(calls.sum(), errors.sum(), hangs.sum());
+    }
+
+    public String getName() { return name; }
+    public Fault getFault() { return fault; }
+}
@@ -0,0 +1,115 @@
+package com.example.parentapp.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load: {@code concurrency} virtual-thread callers each issue GETs back to back until
+ * the deadline. Latencies are kept per caller and merged at the end, so percentiles are exact.
+ */
+public final class LoadGenerator {
+
+    /** Outcome of one run; latencies are in nanoseconds, sorted. */
+    public record Report(Duration elapsed, long[] latencies, Map<Integer, Long> statuses, long failures) {
+
+        public long requests() {
+            return latencies.length;
+        }
+
+        public double throughput() {
+            return latencies.length / (elapsed.toNanos() / 1e9);
+        }
+
+        public double percentileMs(double quantile) {
+            if (latencies.length == 0) return 0;
+            int rank = (int) Math.ceil(quantile * latencies.length) - 1;
+            return latencies[Math.max(0, rank)] / 1e6;
+        }
+    }
+
+    private final HttpClient client;
+    private final URI target;
+    private final Duration requestTimeout;
+
+    public LoadGenerator(URI target, Duration requestTimeout) {
+        this.target = target;
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public Report run(int concurrency, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<Future<Caller>> callers = new ArrayList<>(concurrency);
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                callers.add(threads.submit(() -> new Caller().run(deadline)));
+            }
+        } // waits for every caller
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        int total = 0;
+        List<Caller> done = new ArrayList<>(concurrency);
+        for (Future<Caller> f : callers) {
+            Caller c = f.resultNow();
+            done.add(c);
+            total += c.count;
+        }
+        long[] all = new long[total];
+        Map<Integer, Long> statuses = new TreeMap<>();
+        long failures = 0;
+        int at = 0;
+        for (Caller c : done) {
+            System.arraycopy(c.latencies, 0, all, at, c.count);
+            at += c.count;
+            c.statuses.forEach((k, v) -> statuses.merge(k, v, Long::sum));
+            failures += c.failures;
+        }
+        Arrays.sort(all);
+        return new Report(elapsed, all, statuses, failures);
+    }
+
+    /** One closed-loop caller; only its own thread touches its fields until it returns. */
+    private final class Caller {
+        long[] latencies = new long[1024];
+        int count;
+        final Map<Integer, Long> statuses = new TreeMap<>();
+        long failures;
+
+        Caller run(long deadline) {
+            HttpRequest request = HttpRequest.newBuilder(target).timeout(requestTimeout).GET().build();
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                long t0 = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    statuses.merge(response.statusCode(), 1L, Long::sum);
+                } catch (IOException e) {
+                    failures++; // timeouts and refused connections still count towards latency
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - t0;
+            }
+            return this;
+        }
+    }
+}
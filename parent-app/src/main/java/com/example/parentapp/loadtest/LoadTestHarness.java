@@ -0,0 +1,142 @@
+package com.example.parentapp.loadtest;
+
+import com.example.health.probe.KafkaProbe;
+import com.example.health.probe.MongoProbe;
+import com.example.parentapp.ParentAppApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline load test: starts parent-app against in-process stubs (an HTTP server in place of
+ * httpbin, a fake {@code DataSource}, Kafka and Mongo probes), drives {@code /app-health/custom}
+ * with concurrent callers and prints throughput, latency percentiles and the calls each stub saw.
+ *
+ * <pre>
+ * mvn -pl parent-app -am spring-boot:run \
+ *   -Dspring-boot.run.main-class=com.example.parentapp.loadtest.LoadTestHarness \
+ *   -Dspring-boot.run.arguments="--concurrency=200 --duration=30s --mongo=latency=50ms,hang=0.01"
+ * </pre>
+ *
+ * Harness options: {@code --concurrency} (default 100), {@code --duration} (30s), {@code --warmup}
+ * (5s), {@code --path} ({@code /app-health/custom}), {@code --timeout} (per request, 10s), and a
+ * {@link Fault} spec per stub: {@code --db}, {@code --db-pool}, {@code --mongo}, {@code --kafka},
+ * {@code --http}. Any other {@code --key=value} is passed to the application, e.g.
+ * {@code --app.health.snapshot.enabled=false}.
+ */
+public final class LoadTestHarness {
+    private LoadTestHarness() {}
+
+    private static final List<String> STUBS = List.of("db-pool", "db", "mongo", "kafka", "http");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("concurrency", "100");
+        options.put("duration", "30s");
+        options.put("warmup", "5s");
+        options.put("path", "/app-health/custom");
+        options.put("timeout", "10s");
+        Map<String, String> appArgs = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (options.containsKey(key) || STUBS.contains(key)) {
+                options.put(key, value);
+            } else {
+                appArgs.put(key, value);
+            }
+        }
+
+        Map<String, FaultInjector> stubs = new LinkedHashMap<>();
+        for (String name : STUBS) {
+            stubs.put(name, new FaultInjector(name, Fault.parse(options.get(name))));
+        }
+
+        try (StubHttpServer http = new StubHttpServer(stubs.get("http"))) {
+            Map<String, String> app = new LinkedHashMap<>();
+            app.put("demo.external.url", http.uri("/status/200").toString());
+            app.put("demo.kafka.enabled", "false"); // the stub probe replaces the AdminClient
+            app.put("app.health.db.enabled", "true");
+            app.put("app.health.mongo.enabled", "true");
+            app.put("app.health.kafka.enabled", "true");
+            app.put("spring.autoconfigure.exclude", String.join(",",
+                    "org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration",
+                    "org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration",
+                    "org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration"));
+            app.put("logging.level.root", "WARN");
+            app.putAll(appArgs); // a key given twice on a Spring command line would be joined, so override here
+
+            SpringApplication application = new SpringApplication(ParentAppApplication.class);
+            application.addInitializers((ConfigurableApplicationContext ctx) -> {
+                var beans = ctx.getBeanFactory();
+                beans.registerSingleton("loadTestDataSource", StubDataSource.create(stubs.get("db-pool"), stubs.get("db")));
+                beans.registerSingleton("loadTestMongoProbe", mongoProbe(stubs.get("mongo")));
+                beans.registerSingleton("loadTestKafkaProbe", kafkaProbe(stubs.get("kafka")));
+            });
+            try (ConfigurableApplicationContext ctx = application.run(toArgs(app))) {
+                String port = ctx.getEnvironment().getProperty("local.server.port");
+                URI target = URI.create("http://127.0.0.1:" + port + options.get("path"));
+                int concurrency = Integer.parseInt(options.get("concurrency"));
+                LoadGenerator load = new LoadGenerator(target, DurationStyle.detectAndParse(options.get("timeout")));
+
+                System.out.printf("target %s, %d callers, warmup %s, duration %s%n", target, concurrency,
+                        options.get("warmup"), options.get("duration"));
+                stubs.values().forEach(s -> System.out.printf("  stub %-8s %s%n", s.getName(), s.getFault()));
+
+                load.run(concurrency, DurationStyle.detectAndParse(options.get("warmup")));
+                Map<String, FaultInjector.Counts> before = new LinkedHashMap<>();
+                stubs.forEach((name, s) -> before.put(name, s.counts()));
+                LoadGenerator.Report report = load.run(concurrency, DurationStyle.detectAndParse(options.get("duration")));
+                print(report, stubs, before);
+            }
+        }
+        System.exit(0); // hung stub calls must not keep the JVM alive
+    }
+
+    private static void print(LoadGenerator.Report report, Map<String, FaultInjector> stubs,
+                              Map<String, FaultInjector.Counts> before) {
+        double seconds = report.elapsed().toNanos() / 1e9;
+        System.out.printf("%nrequests    %d in %.1fs (%.1f req/s), %d transport failures%n",
+                report.requests(), seconds, report.throughput(), report.failures());
+        System.out.printf("statuses    %s%n", report.statuses());
+        System.out.printf("latency ms  p50 %.2f  p90 %.2f  p99 %.2f  max %.2f%n", report.percentileMs(0.50),
+                report.percentileMs(0.90), report.percentileMs(0.99), report.percentileMs(1.0));
+        System.out.printf("%n%-8s %10s %10s %12s %8s %8s%n", "stub", "calls", "calls/s", "calls/req", "errors", "hangs");
+        stubs.forEach((name, s) -> {
+            FaultInjector.Counts c = s.counts().minus(before.get(name));
+            double perRequest = report.requests() == 0 ? 0 : (double) c.calls() / report.requests();
+            System.out.printf("%-8s %10d %10.1f %12.4f %8d %8d%n", name, c.calls(), c.calls() / seconds,
+                    perRequest, c.errors(), c.hangs());
+        });
+    }
+
+    private static MongoProbe mongoProbe(FaultInjector faults) {
+        return () -> {
+            faults.apply();
+            return new MongoProbe.Result("demo", null, "ping");
+        };
+    }
+
+    private static KafkaProbe kafkaProbe(FaultInjector faults) {
+        return () -> {
+            faults.apply();
+            return new KafkaProbe.Result(3, "stub-cluster");
+        };
+    }
+
+    private static String[] toArgs(Map<String, String> properties) {
+        List<String> out = new ArrayList<>(properties.size());
+        properties.forEach((k, v) -> out.add("--" + k + "=" + v));
+        return out.toArray(String[]::new);
+    }
+}
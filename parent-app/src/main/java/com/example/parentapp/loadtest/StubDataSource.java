@@ -0,0 +1,115 @@
+package com.example.parentapp.loadtest;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+
+/**
+ * A JDBC {@link DataSource} without a database, for the default DB probe: every connection is
+ * valid and every query returns one row. Faults are applied to {@code getConnection} (pool wait)
+ * and to {@code executeQuery}/{@code isValid} (the validation itself), each with its own injector.
+ */
+public final class StubDataSource {
+    private StubDataSource() {}
+
+    public static DataSource create(FaultInjector pool, FaultInjector query) {
+        return proxy(DataSource.class, (self, method, args) -> switch (method.getName()) {
+            case "getConnection" -> {
+                apply(pool);
+                yield connection(query);
+            }
+            case "isWrapperFor" -> false;
+            default -> defaultValue(method);
+        });
+    }
+
+    private static Connection connection(FaultInjector query) {
+        return proxy(Connection.class, (self, method, args) -> switch (method.getName()) {
+            case "isValid" -> {
+                apply(query);
+                yield true;
+            }
+            case "createStatement" -> statement(query);
+            case "getMetaData" -> metaData();
+            default -> defaultValue(method);
+        });
+    }
+
+    private static Statement statement(FaultInjector query) {
+        return proxy(Statement.class, (self, method, args) -> switch (method.getName()) {
+            case "executeQuery" -> {
+                apply(query);
+                yield resultSet();
+            }
+            case "execute" -> {
+                apply(query);
+                yield true;
+            }
+            default -> defaultValue(method);
+        });
+    }
+
+    private static ResultSet resultSet() {
+        boolean[] consumed = {false};
+        return proxy(ResultSet.class, (self, method, args) -> switch (method.getName()) {
+            case "next" -> {
+                boolean first = !consumed[0];
+                consumed[0] = true;
+                yield first;
+            }
+            case "getInt", "getLong" -> 1;
+            case "getString", "getObject" -> "1";
+            default -> defaultValue(method);
+        });
+    }
+
+    private static DatabaseMetaData metaData() {
+        return proxy(DatabaseMetaData.class, (self, method, args) -> switch (method.getName()) {
+            case "getDatabaseProductName" -> "StubDB";
+            case "getDatabaseProductVersion" -> "1.0";
+            default -> defaultValue(method);
+        });
+    }
+
+    private static void apply(FaultInjector faults) throws SQLException {
+        try {
+            faults.apply();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("interrupted", e);
+        } catch (IllegalStateException e) {
+            throw new SQLException(e.getMessage(), e);
+        }
+    }
+
+    /** Zero, false or null for everything the probe does not look at (close, setQueryTimeout, ...). */
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        if (method.getName().equals("toString")) return "stub";
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        InvocationHandler unwrapping = (self, method, args) -> {
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) return System.identityHashCode(self);
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) return self == args[0];
+            return handler.invoke(self, method, args);
+        };
+        return (T) Proxy.newProxyInstance(StubDataSource.class.getClassLoader(), new Class<?>[]{type}, unwrapping);
+    }
+}